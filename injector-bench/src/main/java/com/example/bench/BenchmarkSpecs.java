@@ -0,0 +1,102 @@
+package com.example.bench;
+
+import com.example.injector.service.HeaderInjector;
+import com.example.injector.service.HeaderInjectorOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds synthetic AsyncAPI specs and payloads for the benchmarks.
+ */
+final class BenchmarkSpecs {
+    static final String TOPIC = "bench.topic";
+
+    private BenchmarkSpecs() {
+    }
+
+    /**
+     * A template of the given kind for the i-th header.
+     */
+    static String template(String kind, int i) {
+        switch (kind) {
+            case "literal":
+                return "value-" + i;
+            case "uuid":
+                return "${uuid()}";
+            case "timestamp":
+                return "${timestamp()}";
+            case "payload":
+                return "${message.payload.field" + (i % 8) + "}";
+            case "mixed":
+                return "prefix-${message.payload.field" + (i % 8) + "}-suffix";
+            default:
+                throw new IllegalArgumentException("Unknown template kind: " + kind);
+        }
+    }
+
+    /**
+     * Cycles through literal, uuid, timestamp and payload templates.
+     */
+    static String mixedTemplate(int i) {
+        String[] kinds = {"literal", "uuid", "timestamp", "payload"};
+        return template(kinds[i % kinds.length], i);
+    }
+
+    static String channel(String topic, Map<String, String> headers) {
+        StringBuilder yaml = new StringBuilder();
+        yaml.append("  ").append(topic).append(":\n");
+        yaml.append("    x-headers:\n");
+        headers.forEach((key, value) -> yaml.append("      ").append(key).append(": '").append(value).append("'\n"));
+        return yaml.toString();
+    }
+
+    static HeaderInjector injector(String channelsYaml) {
+        return injector(channelsYaml, HeaderInjectorOptions.defaults());
+    }
+
+    static HeaderInjector injector(String channelsYaml, HeaderInjectorOptions options) {
+        String yaml = "asyncapi: 2.6.0\nchannels:\n" + channelsYaml;
+        try {
+            return new HeaderInjector(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)), options);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Map<String, Object> payloadMap(int paddingFields) {
+        Map<String, Object> payload = new HashMap<>();
+        for (int i = 0; i < 8; i++) {
+            payload.put("field" + i, i % 2 == 0 ? "value-" + i : (Object) (1000L + i));
+        }
+        for (int i = 0; i < paddingFields; i++) {
+            payload.put("padding" + i, "lorem ipsum dolor sit amet " + i);
+        }
+        return payload;
+    }
+
+    /**
+     * JSON for {@link #payloadMap(int)}, with the padding placed before the
+     * referenced fields so the extractor has to skip it.
+     */
+    static String payloadJson(int paddingFields) {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < paddingFields; i++) {
+            json.append("\"padding").append(i).append("\":\"lorem ipsum dolor sit amet ").append(i).append("\",");
+        }
+        for (int i = 0; i < 8; i++) {
+            json.append("\"field").append(i).append("\":");
+            if (i % 2 == 0) {
+                json.append("\"value-").append(i).append('"');
+            } else {
+                json.append(1000L + i);
+            }
+            json.append(i < 7 ? "," : "}");
+        }
+        return json.toString();
+    }
+}
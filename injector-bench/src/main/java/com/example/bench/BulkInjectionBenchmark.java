@@ -0,0 +1,69 @@
+package com.example.bench;
+
+import com.example.injector.bulk.BulkInjector;
+import com.example.injector.bulk.BulkInjectorOptions;
+import com.example.injector.service.HeaderInjector;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Records per microsecond through {@link BulkInjector} as the parallelism
+ * grows, with the records consumed in input order on the benchmark thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInjectionBenchmark {
+    private static final int RECORDS = 100_000;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private BulkInjector bulkInjector;
+    private String payload;
+
+    @Setup
+    public void setup() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("causationId", "${uuid()}");
+        headers.put("aggregateId", "${message.payload.field0}");
+        headers.put("messageType", "bench.created");
+        headers.put("timestamp", "${timestamp()}");
+        HeaderInjector injector = BenchmarkSpecs.injector(BenchmarkSpecs.channel(BenchmarkSpecs.TOPIC, headers));
+        bulkInjector = new BulkInjector(injector, BulkInjectorOptions.builder().parallelism(parallelism).build());
+        payload = BenchmarkSpecs.payloadJson(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bulkInjector.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long inject(Blackhole blackhole) {
+        return bulkInjector.inject(IntStream.range(0, RECORDS)
+                .mapToObj(i -> new ProducerRecord<String, String>(BenchmarkSpecs.TOPIC, payload)), blackhole::consume);
+    }
+}
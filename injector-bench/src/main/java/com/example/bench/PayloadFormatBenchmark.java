@@ -0,0 +1,76 @@
+package com.example.bench;
+
+import com.example.injector.service.HeaderInjector;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-parsed Map payloads versus raw JSON as String and byte[], for small and
+ * multi-KB payloads where the referenced fields come last.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"0", "100"})
+    private int paddingFields;
+
+    private HeaderInjector injector;
+    private Map<String, Object> payloadMap;
+    private String payloadString;
+    private byte[] payloadBytes;
+
+    @Setup
+    public void setup() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("causationId", "${uuid()}");
+        headers.put("aggregateId", "${message.payload.field0}");
+        headers.put("messageType", "bench.created");
+        headers.put("timestamp", "${timestamp()}");
+        injector = BenchmarkSpecs.injector(BenchmarkSpecs.channel(BenchmarkSpecs.TOPIC, headers));
+        payloadMap = BenchmarkSpecs.payloadMap(paddingFields);
+        payloadString = BenchmarkSpecs.payloadJson(paddingFields);
+        payloadBytes = payloadString.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Headers mapPayload() {
+        Headers headers = new RecordHeaders();
+        injector.injectHeaders(BenchmarkSpecs.TOPIC, headers, payloadMap);
+        return headers;
+    }
+
+    @Benchmark
+    public Headers jsonStringPayload() {
+        Headers headers = new RecordHeaders();
+        injector.injectHeaders(BenchmarkSpecs.TOPIC, headers, payloadString);
+        return headers;
+    }
+
+    @Benchmark
+    public Headers jsonBytesPayload() {
+        Headers headers = new RecordHeaders();
+        injector.injectHeaders(BenchmarkSpecs.TOPIC, headers, payloadBytes);
+        return headers;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bench;
+
+import com.example.injector.service.HeaderInjector;
+import com.example.injector.service.HeaderInjectorOptions;
+import com.example.injector.service.SpecPool;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Retained heap of one {@link HeaderInjector} per tenant, as a gateway hosting
+ * many tenants would hold them, with and without a shared {@link SpecPool}.
+ * Sizes are the deep size of the injectors' object graph measured with JOL.
+ *
+ * <ul>
+ *   <li>{@code identical}: every tenant loads the same spec</li>
+ *   <li>{@code tenant-topics}: channels are declared alike but named per tenant</li>
+ *   <li>{@code distinct}: every tenant's templates differ, nothing can be shared</li>
+ * </ul>
+ *
+ * <p>Arguments: {@code <tenants> <channels per spec> <headers per channel>}
+ */
+public final class SpecFootprint {
+
+    private SpecFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int tenants = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int channels = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int headers = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+
+        Map<String, IntFunction<String>> scenarios = new LinkedHashMap<>();
+        scenarios.put("identical", tenant -> spec("", "", channels, headers));
+        scenarios.put("tenant-topics", tenant -> spec("tenant" + tenant + ".", "", channels, headers));
+        scenarios.put("distinct", tenant -> spec("tenant" + tenant + ".", "-tenant" + tenant, channels, headers));
+
+        System.out.printf("%d tenants, %d channels per spec, %d headers per channel%n", tenants, channels, headers);
+        System.out.printf("%-14s %14s %14s %14s %14s %8s%n",
+                "scenario", "unpooled MB", "per tenant KB", "pooled MB", "per tenant KB", "saved");
+        scenarios.forEach((name, spec) -> {
+            long unpooled = footprint(tenants, spec, HeaderInjectorOptions.defaults());
+            long pooled = footprint(tenants, spec, HeaderInjectorOptions.builder().specPool(new SpecPool()).build());
+            System.out.printf("%-14s %14.2f %14.1f %14.2f %14.1f %7.1f%%%n", name,
+                    unpooled / 1048576.0, unpooled / 1024.0 / tenants,
+                    pooled / 1048576.0, pooled / 1024.0 / tenants,
+                    100.0 * (unpooled - pooled) / unpooled);
+        });
+    }
+
+    private static long footprint(int tenants, IntFunction<String> spec, HeaderInjectorOptions options) {
+        List<HeaderInjector> injectors = new ArrayList<>(tenants);
+        for (int tenant = 0; tenant < tenants; tenant++) {
+            injectors.add(BenchmarkSpecs.injector(spec.apply(tenant), options));
+        }
+        return GraphLayout.parseInstance(injectors.toArray()).totalSize();
+    }
+
+    private static String spec(String topicPrefix, String literalSuffix, int channels, int headers) {
+        StringBuilder yaml = new StringBuilder();
+        for (int c = 0; c < channels; c++) {
+            Map<String, String> channelHeaders = new LinkedHashMap<>();
+            for (int h = 0; h < headers; h++) {
+                String template = BenchmarkSpecs.mixedTemplate(h);
+                channelHeaders.put("header" + h, template.startsWith("$") ? template : template + "-" + c + literalSuffix);
+            }
+            yaml.append(BenchmarkSpecs.channel(topicPrefix + "channel" + c, channelHeaders));
+        }
+        return yaml.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bench;
+
+import com.example.injector.service.HeaderInjector;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of four headers of a single template kind: literal-only versus
+ * generated values versus payload-field lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateKindBenchmark {
+
+    @Param({"literal", "uuid", "timestamp", "payload", "mixed"})
+    private String kind;
+
+    private HeaderInjector injector;
+    private String payload;
+
+    @Setup
+    public void setup() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            headers.put("header" + i, BenchmarkSpecs.template(kind, i));
+        }
+        injector = BenchmarkSpecs.injector(BenchmarkSpecs.channel(BenchmarkSpecs.TOPIC, headers));
+        payload = BenchmarkSpecs.payloadJson(0);
+    }
+
+    @Benchmark
+    public Headers inject() {
+        Headers headers = new RecordHeaders();
+        injector.injectHeaders(BenchmarkSpecs.TOPIC, headers, payload);
+        return headers;
+    }
+}
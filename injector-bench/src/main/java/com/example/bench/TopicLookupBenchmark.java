@@ -0,0 +1,59 @@
+package com.example.bench;
+
+import com.example.injector.service.HeaderInjector;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Topic resolution across specs with many channels, rotating through the
+ * topics so lookups do not always hit the same entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopicLookupBenchmark {
+
+    @Param({"10", "500", "2000"})
+    private int channelCount;
+
+    private HeaderInjector injector;
+    private String[] topics;
+    private int next;
+
+    @Setup
+    public void setup() {
+        StringBuilder channels = new StringBuilder();
+        topics = new String[channelCount];
+        for (int i = 0; i < channelCount; i++) {
+            topics[i] = "domain" + (i % 20) + ".entity" + i + ".created";
+            channels.append(BenchmarkSpecs.channel(topics[i], Map.of("messageType", topics[i])));
+        }
+        injector = BenchmarkSpecs.injector(channels.toString());
+    }
+
+    @Benchmark
+    public Headers inject() {
+        String topic = topics[next];
+        next = next + 1 == topics.length ? 0 : next + 1;
+        Headers headers = new RecordHeaders();
+        injector.injectHeaders(topic, headers, (String) null);
+        return headers;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.bench.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test for the producer app's {@code /publish} endpoint.
+ * Each concurrency level keeps that many blocking clients busy for the configured
+ * duration and reports throughput, error count and latency percentiles from an
+ * HdrHistogram, so recording allocates nothing per request. Run it
+ * once against an app started with {@code spring.threads.virtual.enabled=false}
+ * and once with {@code true} to compare how many concurrent requests each
+ * thread model sustains.
+ *
+ * <p>Arguments: {@code <baseUrl> <topic> <seconds per level> <concurrency levels, comma separated>}
+ */
+public final class PublishLoadTest {
+
+    private PublishLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String topic = args.length > 1 ? args[1] : "user.created";
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int[] levels = Arrays.stream((args.length > 3 ? args[3] : "50,200,400,800,1600").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        System.out.printf("%-12s %12s %8s %10s %10s %10s %10s%n",
+                "concurrency", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (int concurrency : levels) {
+            run(client, baseUrl, topic, concurrency, Duration.ofSeconds(seconds));
+        }
+    }
+
+    private static void run(HttpClient client, String baseUrl, String topic, int concurrency, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        Histogram latencies = new ConcurrentHistogram(3);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = request(baseUrl, topic, i);
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.recordValue((System.nanoTime() - start) / 1_000);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%-12d %12.1f %8d %10.1f %10.1f %10.1f %10.1f%n", concurrency,
+                latencies.getTotalCount() / seconds, errors.get(), millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static HttpRequest request(String baseUrl, String topic, int worker) {
+        String payload = "{\"userId\":\"load-" + worker + "\",\"email\":\"load@example.com\",\"name\":\"Load Test\"}";
+        String form = "topic=" + URLEncoder.encode(topic, StandardCharsets.UTF_8)
+                + "&payload=" + URLEncoder.encode(payload, StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/publish"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1e3;
+    }
+}
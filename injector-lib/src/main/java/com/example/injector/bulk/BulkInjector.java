@@ -0,0 +1,125 @@
+package com.example.injector.bulk;
+
+import com.example.injector.service.HeaderInjector;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Injects headers and keys into large record sets, e.g. replays and backfills.
+ * The input is read in chunks on the calling thread and each chunk is injected
+ * on a fork-join pool. Chunks are emitted on the calling thread in input order,
+ * so records keep their relative order, per partition too. Reading stops while
+ * {@link BulkInjectorOptions#getMaxChunksInFlight()} chunks are pending, which
+ * bounds memory on unbounded inputs. A sink that blocks, such as a full
+ * producer buffer, also pauses reading.
+ */
+@Slf4j
+public final class BulkInjector implements AutoCloseable {
+    private final HeaderInjector headerInjector;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final ForkJoinPool pool;
+
+    public BulkInjector(HeaderInjector headerInjector, BulkInjectorOptions options) {
+        if (options.getParallelism() < 1 || options.getChunkSize() < 1) {
+            throw new IllegalArgumentException("parallelism and chunkSize must be positive");
+        }
+        this.headerInjector = headerInjector;
+        this.chunkSize = options.getChunkSize();
+        this.maxChunksInFlight = options.chunksInFlight();
+        this.pool = new ForkJoinPool(options.getParallelism());
+    }
+
+    /**
+     * Injects every record like {@link HeaderInjector#injectHeadersAndKey(ProducerRecord)}
+     * and passes the results to {@code sink} in input order. Stops at the first
+     * record whose headers cannot be injected and rethrows its exception; the
+     * chunks before it have been emitted.
+     *
+     * @return the number of records emitted
+     */
+    public <V> long inject(Iterator<ProducerRecord<String, V>> records, Consumer<? super ProducerRecord<String, V>> sink) {
+        ArrayDeque<ForkJoinTask<List<ProducerRecord<String, V>>>> inFlight = new ArrayDeque<>(maxChunksInFlight);
+        long emitted = 0;
+        try {
+            while (records.hasNext()) {
+                List<ProducerRecord<String, V>> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && records.hasNext()) {
+                    chunk.add(records.next());
+                }
+                inFlight.add(pool.submit(() -> injectChunk(chunk)));
+                if (inFlight.size() >= maxChunksInFlight) {
+                    emitted += emit(inFlight.poll(), sink);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                emitted += emit(inFlight.poll(), sink);
+            }
+            return emitted;
+        } finally {
+            inFlight.forEach(task -> task.cancel(false));
+        }
+    }
+
+    public <V> long inject(Stream<ProducerRecord<String, V>> records, Consumer<? super ProducerRecord<String, V>> sink) {
+        return inject(records.iterator(), sink);
+    }
+
+    /**
+     * Injects and sends every record with {@code producer}, whose batching
+     * pipelines the sends, then flushes it. Per-partition order on the broker
+     * additionally needs an idempotent producer or
+     * {@code max.in.flight.requests.per.connection=1}.
+     */
+    public <V> BulkResult send(Iterator<ProducerRecord<String, V>> records, Producer<String, V> producer) {
+        LongAdder failed = new LongAdder();
+        AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        Callback callback = (metadata, exception) -> {
+            if (exception != null) {
+                failed.increment();
+                if (firstFailure.compareAndSet(null, exception)) {
+                    log.warn("Bulk send failed", exception);
+                }
+            }
+        };
+        long sent = inject(records, record -> producer.send(record, callback));
+        producer.flush();
+        return new BulkResult(sent, failed.sum(), firstFailure.get());
+    }
+
+    public <V> BulkResult send(Stream<ProducerRecord<String, V>> records, Producer<String, V> producer) {
+        return send(records.iterator(), producer);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private <V> List<ProducerRecord<String, V>> injectChunk(List<ProducerRecord<String, V>> chunk) {
+        for (int i = 0; i < chunk.size(); i++) {
+            chunk.set(i, headerInjector.injectHeadersAndKey(chunk.get(i)));
+        }
+        return chunk;
+    }
+
+    private static <V> int emit(ForkJoinTask<List<ProducerRecord<String, V>>> task,
+                                Consumer<? super ProducerRecord<String, V>> sink) {
+        List<ProducerRecord<String, V>> chunk = task.join();
+        chunk.forEach(sink);
+        return chunk.size();
+    }
+}
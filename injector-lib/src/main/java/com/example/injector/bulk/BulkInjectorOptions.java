@@ -0,0 +1,36 @@
+package com.example.injector.bulk;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Parallelism and memory bounds of a {@link BulkInjector}. At most
+ * {@code chunkSize * maxChunksInFlight} records are held at any time.
+ */
+@Value
+@Builder
+public class BulkInjectorOptions {
+    @Builder.Default
+    int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Records injected by one task; large enough to amortize the hand-off.
+     */
+    @Builder.Default
+    int chunkSize = 1_024;
+
+    /**
+     * Chunks submitted but not yet emitted. Reading the input pauses while the
+     * oldest chunk is still being injected; defaults to twice the parallelism.
+     */
+    @Builder.Default
+    int maxChunksInFlight = 0;
+
+    public static BulkInjectorOptions defaults() {
+        return builder().build();
+    }
+
+    int chunksInFlight() {
+        return maxChunksInFlight > 0 ? maxChunksInFlight : 2 * parallelism;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.injector.bulk;
+
+import lombok.Value;
+
+/**
+ * Outcome of {@link BulkInjector#send}: records handed to the producer and how
+ * many of them the broker did not acknowledge.
+ */
+@Value
+public class BulkResult {
+    long sent;
+    long failed;
+    /**
+     * The first send failure, or null.
+     */
+    Exception firstFailure;
+}
@@ -0,0 +1,46 @@
+package com.example.injector.clock;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Millisecond clock that reads a volatile value refreshed by a single daemon
+ * thread, trading up to one tick of accuracy for a plain memory read.
+ */
+public final class CoarseClock implements LongSupplier {
+    private static final long DEFAULT_TICK_MILLIS = 1L;
+
+    private final ScheduledExecutorService ticker;
+    private volatile long now = System.currentTimeMillis();
+
+    public CoarseClock(long tickMillis) {
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "header-injector-coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> now = System.currentTimeMillis(), tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * JVM-wide clock with a 1 ms tick, started on first use.
+     */
+    public static CoarseClock shared() {
+        return Shared.INSTANCE;
+    }
+
+    @Override
+    public long getAsLong() {
+        return now;
+    }
+
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    private static final class Shared {
+        private static final CoarseClock INSTANCE = new CoarseClock(DEFAULT_TICK_MILLIS);
+    }
+}
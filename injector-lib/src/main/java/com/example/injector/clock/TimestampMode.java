@@ -0,0 +1,17 @@
+package com.example.injector.clock;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Clock used for {@code ${timestamp()}}.
+ */
+public enum TimestampMode {
+    /** {@link System#currentTimeMillis()} on every call. */
+    SYSTEM,
+    /** Cached millisecond value refreshed by a background thread, see {@link CoarseClock}. */
+    COARSE;
+
+    public LongSupplier clock() {
+        return this == COARSE ? CoarseClock.shared() : System::currentTimeMillis;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.injector.codec;
+
+import com.example.injector.model.Channel;
+import com.example.injector.model.MessageDefinition;
+import com.example.injector.model.Property;
+import com.example.injector.template.TemplateCompiler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Worst-case size of the headers a channel adds to one record, checked against
+ * {@code x-header-budget} when the spec is loaded. Payload fields are bounded
+ * by their schema: {@code maxLength} (characters, so up to four UTF-8 bytes each),
+ * {@code format: uuid}, or a numeric or boolean type. {@code ${uuid()}} and
+ * functions that return IDs take a UUID's 36 characters, the longest ID text;
+ * other function calls are bounded by {@code HeaderFunction#maxBytes}.
+ */
+public final class HeaderBudget {
+    private static final int UUID_TEXT_BYTES = 36;
+    private static final int MAX_UTF8_BYTES_PER_CHARACTER = 4;
+    private static final int INTEGER_BYTES = 20;
+    private static final int NUMBER_BYTES = 24;
+    private static final int BOOLEAN_BYTES = 5;
+
+    private HeaderBudget() {
+    }
+
+    /**
+     * @param compiler a compiler with the injector's functions, used for nothing else
+     * @throws IllegalArgumentException if the channel declares a budget its headers can exceed
+     */
+    public static void check(String name, Channel channel, MessageDefinition message, TemplateCompiler compiler) {
+        Integer budget = channel.getXHeaderBudget();
+        if (budget == null || channel.getXHeaders() == null) {
+            return;
+        }
+        int maxBytes;
+        try {
+            maxBytes = maxBytes(channel, message, compiler);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Channel " + name + " declares x-header-budget but " + e.getMessage(), e);
+        }
+        if (maxBytes > budget) {
+            throw new IllegalArgumentException("Channel " + name + " headers can take up to " + maxBytes
+                    + " bytes, over its x-header-budget of " + budget);
+        }
+    }
+
+    /**
+     * Key plus value bytes in the worst case, with the channel's encoding and packing.
+     *
+     * @throws IllegalArgumentException if a referenced payload field or function call has no bounded size
+     */
+    public static int maxBytes(Channel channel, MessageDefinition message, TemplateCompiler compiler) {
+        HeaderEncoding encoding = HeaderEncoding.of(channel.getXHeaderEncoding());
+        boolean packed = Boolean.TRUE.equals(channel.getXHeaderPacked());
+        Map<String, Property> properties = message == null || message.getPayload() == null
+                ? null : message.getPayload().getProperties();
+        List<Integer> values = new ArrayList<>();
+        int keyBytes = 0;
+        for (Map.Entry<String, String> header : channel.getXHeaders().entrySet()) {
+            keyBytes += utf8Length(header.getKey());
+            values.add(compiler.maxBytes(header.getValue(), encoding, path -> maxFieldBytes(path, properties)));
+        }
+        if (!packed) {
+            return keyBytes + values.stream().mapToInt(Integer::intValue).sum();
+        }
+        int total = utf8Length(PackedHeaders.KEY) + PackedHeaders.PREFIX_BYTES;
+        for (int value : values) {
+            total += PackedHeaders.varintSize(value) + value;
+        }
+        return total;
+    }
+
+    private static int maxFieldBytes(String path, Map<String, Property> properties) {
+        Property property = null;
+        for (String segment : path.split("\\.")) {
+            property = properties == null ? null : properties.get(segment);
+            if (property == null) {
+                throw new IllegalArgumentException("payload field " + path + " is not declared in the message schema");
+            }
+            properties = property.getProperties();
+        }
+        if (property.getMaxLength() != null) {
+            return property.getMaxLength() * MAX_UTF8_BYTES_PER_CHARACTER;
+        }
+        if ("uuid".equals(property.getFormat())) {
+            return UUID_TEXT_BYTES;
+        }
+        String type = property.getType() == null ? "" : property.getType();
+        switch (type) {
+            case "integer":
+                return INTEGER_BYTES;
+            case "number":
+                return NUMBER_BYTES;
+            case "boolean":
+                return BOOLEAN_BYTES;
+            default:
+                throw new IllegalArgumentException("payload field " + path + " has no maxLength");
+        }
+    }
+
+    private static int utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
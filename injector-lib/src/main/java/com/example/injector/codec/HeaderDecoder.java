@@ -0,0 +1,204 @@
+package com.example.injector.codec;
+
+import com.example.injector.id.IdStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads header values written by {@code HeaderInjector}, for consumers. IDs and
+ * timestamps are decoded in the encoding the caller names, the channel's
+ * {@code x-header-encoding} or the flags of a packed header; only headers that
+ * are exactly an ID or {@code ${timestamp()}} are ever binary.
+ */
+public final class HeaderDecoder {
+    private static final int BINARY_ID_LENGTH = 16;
+    private static final int BINARY_TIMESTAMP_LENGTH = 8;
+    private static final int UUID_TEXT_LENGTH = 36;
+    /** Shift of the fifth and last byte of an int varint. */
+    private static final int MAX_VARINT_SHIFT = 28;
+
+    private HeaderDecoder() {
+    }
+
+    public static String text(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    public static String text(byte[] bytes, int offset, int length) {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    public static UUID uuid(byte[] value, HeaderEncoding encoding) {
+        return value == null ? null : uuid(value, 0, value.length, encoding);
+    }
+
+    /**
+     * Decodes the value at {@code bytes[offset, offset + length)}, e.g. inside a
+     * packed header, without copying it: 16 raw bytes in binary, else a 36
+     * character UUID.
+     *
+     * @throws IllegalArgumentException if the value is not a UUID in that encoding
+     */
+    public static UUID uuid(byte[] bytes, int offset, int length, HeaderEncoding encoding) {
+        if (encoding == HeaderEncoding.BINARY) {
+            requireLength(bytes, offset, length, BINARY_ID_LENGTH, "binary ID");
+            return new UUID(readLong(bytes, offset), readLong(bytes, offset + 8));
+        }
+        requireLength(bytes, offset, length, UUID_TEXT_LENGTH, "UUID");
+        if (bytes[offset + 8] != '-' || bytes[offset + 13] != '-' || bytes[offset + 18] != '-' || bytes[offset + 23] != '-') {
+            throw new IllegalArgumentException("Not a UUID: " + text(bytes, offset, length));
+        }
+        return new UUID(hex(bytes, offset, 8) << 32 | hex(bytes, offset + 9, 4) << 16 | hex(bytes, offset + 14, 4),
+                hex(bytes, offset + 19, 4) << 48 | hex(bytes, offset + 24, 12));
+    }
+
+    /**
+     * Decodes an ID of any strategy to the text the strategy writes, e.g. a ULID.
+     *
+     * @throws IllegalArgumentException if the value is not such an ID in that encoding
+     */
+    public static String id(byte[] bytes, int offset, int length, HeaderEncoding encoding, IdStrategy strategy) {
+        if (encoding == HeaderEncoding.BINARY) {
+            requireLength(bytes, offset, length, BINARY_ID_LENGTH, "binary ID");
+            return strategy.text(bytes, offset);
+        }
+        strategy.binary(Arrays.copyOfRange(bytes, offset, offset + length));
+        return text(bytes, offset, length);
+    }
+
+    public static long timestamp(byte[] value, HeaderEncoding encoding) {
+        return timestamp(value, 0, value.length, encoding);
+    }
+
+    /**
+     * Decodes an 8-byte big-endian long in binary, else decimal text.
+     *
+     * @throws IllegalArgumentException if the value is not a timestamp in that encoding
+     */
+    public static long timestamp(byte[] bytes, int offset, int length, HeaderEncoding encoding) {
+        if (encoding == HeaderEncoding.BINARY) {
+            requireLength(bytes, offset, length, BINARY_TIMESTAMP_LENGTH, "binary timestamp");
+            return readLong(bytes, offset);
+        }
+        return parseLong(bytes, offset, length);
+    }
+
+    /**
+     * The encoding of the values in a packed header, from its flags byte.
+     */
+    public static HeaderEncoding encoding(byte[] packed) {
+        return isBinary(packed) ? HeaderEncoding.BINARY : HeaderEncoding.TEXT;
+    }
+
+    public static boolean isBinary(byte[] packed) {
+        return (packed[1] & PackedHeaders.FLAG_BINARY) != 0;
+    }
+
+    /**
+     * Splits a {@link PackedHeaders#KEY} header back into its values.
+     *
+     * @param keys the channel's header keys in declared order
+     * @return one value per key, in the same order
+     * @throws IllegalArgumentException if the version or key layout does not match
+     */
+    public static byte[][] unpack(byte[] packed, List<String> keys) {
+        return unpack(packed, keys.size(), PackedHeaders.keyHash(keys));
+    }
+
+    public static byte[][] unpack(byte[] packed, int keyCount, int keyHash) {
+        int[] bounds = locate(packed, keyCount, keyHash);
+        byte[][] values = new byte[keyCount][];
+        for (int i = 0; i < keyCount; i++) {
+            values[i] = new byte[bounds[2 * i + 1]];
+            System.arraycopy(packed, bounds[2 * i], values[i], 0, values[i].length);
+        }
+        return values;
+    }
+
+    /**
+     * Finds the values inside a packed header without copying them.
+     *
+     * @return offset and length of value {@code i} at {@code [2 * i]} and {@code [2 * i + 1]}
+     * @throws IllegalArgumentException if the version or key layout does not match, or the value is truncated
+     *                                  or malformed
+     */
+    public static int[] locate(byte[] packed, int keyCount, int keyHash) {
+        if (packed.length < PackedHeaders.PREFIX_BYTES || packed[0] != PackedHeaders.VERSION) {
+            throw new IllegalArgumentException("Unsupported packed header version");
+        }
+        if (readInt(packed, 2) != keyHash) {
+            throw new IllegalArgumentException("Packed headers were written for a different header layout");
+        }
+        int[] bounds = new int[2 * keyCount];
+        int offset = PackedHeaders.PREFIX_BYTES;
+        for (int i = 0; i < keyCount; i++) {
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (offset == packed.length) {
+                    throw new IllegalArgumentException("Truncated packed header");
+                }
+                if (shift > MAX_VARINT_SHIFT) {
+                    throw new IllegalArgumentException("Malformed length in packed header");
+                }
+                b = packed[offset++];
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            if (length < 0 || length > packed.length - offset) {
+                throw new IllegalArgumentException("Truncated packed header");
+            }
+            bounds[2 * i] = offset;
+            bounds[2 * i + 1] = length;
+            offset += length;
+        }
+        return bounds;
+    }
+
+    private static void requireLength(byte[] bytes, int offset, int length, int expected, String kind) {
+        if (length != expected) {
+            throw new IllegalArgumentException("Not a " + kind + ": " + length + " bytes");
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        return (long) readInt(bytes, offset) << 32 | readInt(bytes, offset + 4) & 0xFFFFFFFFL;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8 | bytes[offset + 3] & 0xFF;
+    }
+
+    private static long hex(byte[] bytes, int offset, int digits) {
+        long value = 0;
+        for (int i = offset; i < offset + digits; i++) {
+            int digit = Character.digit(bytes[i], 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a UUID: '" + (char) (bytes[i] & 0xFF) + "' is no hex digit");
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private static long parseLong(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            throw new NumberFormatException("Empty timestamp");
+        }
+        boolean negative = bytes[offset] == '-';
+        long value = 0;
+        for (int i = negative ? offset + 1 : offset; i < offset + length; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Not a timestamp: " + text(bytes, offset, length));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.injector.codec;
+
+import java.util.Locale;
+
+/**
+ * Value encoding of a channel's headers, from {@code x-header-encoding}.
+ */
+public enum HeaderEncoding {
+    /** UTF-8 text, as before. */
+    TEXT,
+    /**
+     * Headers whose template is exactly {@code ${uuid()}} or an ID function
+     * such as {@code ${messageId()}} carry the raw 16 ID bytes and
+     * {@code ${timestamp()}} an 8-byte big-endian long. Everything else stays UTF-8.
+     */
+    BINARY;
+
+    /**
+     * @throws IllegalArgumentException for unknown names
+     */
+    public static HeaderEncoding of(String value) {
+        return value == null ? TEXT : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
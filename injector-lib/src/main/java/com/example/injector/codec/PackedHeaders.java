@@ -0,0 +1,68 @@
+package com.example.injector.codec;
+
+import java.util.List;
+
+/**
+ * Wire format of {@code x-header-packed: true} channels: all header values in
+ * one record header named {@value #KEY}, so the header keys are not repeated
+ * on every record.
+ *
+ * <pre>
+ * version   1 byte   {@value #VERSION}
+ * flags     1 byte   bit 0 set for {@link HeaderEncoding#BINARY}
+ * keyHash   4 bytes  big-endian {@link #keyHash(List)} of the declared header keys
+ * values    per header in declared order: unsigned LEB128 varint length, then the bytes
+ * </pre>
+ */
+public final class PackedHeaders {
+    public static final String KEY = "hdr";
+    public static final int VERSION = 1;
+    public static final int FLAG_BINARY = 1;
+    static final int PREFIX_BYTES = 6;
+
+    private PackedHeaders() {
+    }
+
+    /**
+     * {@link String#hashCode()} of the keys joined by {@code '\n'}; lets a
+     * decoder reject records packed for a different header layout.
+     */
+    public static int keyHash(List<String> keys) {
+        return String.join("\n", keys).hashCode();
+    }
+
+    public static byte[] pack(byte[][] values, int keyHash, HeaderEncoding encoding) {
+        int size = PREFIX_BYTES;
+        for (byte[] value : values) {
+            size += varintSize(value.length) + value.length;
+        }
+        byte[] packed = new byte[size];
+        packed[0] = VERSION;
+        packed[1] = (byte) (encoding == HeaderEncoding.BINARY ? FLAG_BINARY : 0);
+        packed[2] = (byte) (keyHash >>> 24);
+        packed[3] = (byte) (keyHash >>> 16);
+        packed[4] = (byte) (keyHash >>> 8);
+        packed[5] = (byte) keyHash;
+        int offset = PREFIX_BYTES;
+        for (byte[] value : values) {
+            int length = value.length;
+            while ((length & ~0x7F) != 0) {
+                packed[offset++] = (byte) ((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            packed[offset++] = (byte) length;
+            System.arraycopy(value, 0, packed, offset, value.length);
+            offset += value.length;
+        }
+        return packed;
+    }
+
+    public static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
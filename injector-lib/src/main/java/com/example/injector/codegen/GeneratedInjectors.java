@@ -0,0 +1,26 @@
+package com.example.injector.codegen;
+
+import com.example.injector.id.IdGenerator;
+import com.example.injector.model.Channel;
+import com.example.injector.template.ChannelInjector;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Service provider interface implemented by the class {@link InjectorGenerator}
+ * emits for a set of specs. {@code HeaderInjector} finds it with
+ * {@link java.util.ServiceLoader} and uses a generated injector instead of
+ * interpreting templates whenever a loaded channel's {@code x-} extensions still
+ * match the ones the code was generated from.
+ */
+public interface GeneratedInjectors {
+
+    /**
+     * The channel definitions the injectors were generated from; only the
+     * {@code x-} extensions are populated. Callers must not modify them.
+     */
+    Map<String, Channel> channels();
+
+    ChannelInjector create(String channel, IdGenerator idGenerator, LongSupplier clock);
+}
@@ -0,0 +1,485 @@
+package com.example.injector.codegen;
+
+import com.example.injector.codec.HeaderBudget;
+import com.example.injector.extract.JsonPayloadExtractorProvider;
+import com.example.injector.model.AsyncApiSpec;
+import com.example.injector.model.Channel;
+import com.example.injector.model.MessageDefinition;
+import com.example.injector.model.Property;
+import com.example.injector.service.SpecRegistry;
+import com.example.injector.service.SpecWatcher;
+import com.example.injector.template.ChannelPlan;
+import com.example.injector.template.TemplateCompiler;
+import com.example.injector.template.TemplateSegment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Generates one {@link com.example.injector.template.ChannelInjector} class per
+ * channel from AsyncAPI specs at build time, plus a {@link GeneratedInjectors}
+ * provider registered under {@code META-INF/services}. Literal header values
+ * become constant byte arrays and Map payload fields are read with direct
+ * lookups, so the hot path has no template interpretation left.
+ *
+ * <p>Usage: {@code InjectorGenerator <spec file or directory> <output directory> <package>}.
+ * Sources are written to {@code <output>/java}, the service file to {@code <output>/resources}.
+ * Channels whose content type is not JSON, that set a header encoding or
+ * packing, or that call functions other than {@link #INLINED_FUNCTIONS}, are
+ * skipped and keep using the runtime plan.
+ */
+@Slf4j
+public final class InjectorGenerator {
+    static final String PROVIDER_CLASS = "GeneratedHeaderInjectors";
+    /**
+     * Built-in functions the generated code calls on {@code MessageContext}
+     * directly. Generated injectors only apply while no custom function
+     * replaces them.
+     */
+    public static final Set<String> INLINED_FUNCTIONS = Set.of("messageId", "correlationId", "causationId");
+
+    private final String packageName;
+
+    public InjectorGenerator(String packageName) {
+        this.packageName = packageName;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: InjectorGenerator <spec file or directory> <output directory> <package>");
+            System.exit(2);
+        }
+        List<Path> generated = new InjectorGenerator(args[2]).generate(readSpecs(Path.of(args[0])), Path.of(args[1]));
+        log.info("Generated {} header injector source(s) in {}", generated.size(), args[1]);
+    }
+
+    /**
+     * @return the written source files
+     * @throws IllegalArgumentException if the specs conflict or a template references an undeclared payload property
+     */
+    public List<Path> generate(List<AsyncApiSpec> specs, Path outputDirectory) throws IOException {
+        SpecRegistry registry = SpecRegistry.merge(specs);
+        JsonPayloadExtractorProvider json = new JsonPayloadExtractorProvider();
+        Path sourceDirectory = outputDirectory.resolve("java").resolve(packageName.replace('.', '/'));
+        Files.createDirectories(sourceDirectory);
+
+        Map<String, String> classNames = new LinkedHashMap<>();
+        Set<String> usedNames = new HashSet<>();
+        List<Path> written = new ArrayList<>();
+        for (Map.Entry<String, Channel> entry : registry.getChannels().entrySet()) {
+            String channel = entry.getKey();
+            if (entry.getValue() == null || entry.getValue().getXHeaders() == null) {
+                continue;
+            }
+            String contentType = registry.contentTypeOf(channel).split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+            if (!json.supports(contentType)) {
+                log.info("Skipping channel {}: content type {} is not JSON", channel, contentType);
+                continue;
+            }
+            HeaderBudget.check(channel, entry.getValue(), registry.messageOf(channel), new TemplateCompiler());
+            if (entry.getValue().getXHeaderEncoding() != null || entry.getValue().getXHeaderPacked() != null) {
+                log.info("Skipping channel {}: header encoding and packing are served by the runtime plan", channel);
+                continue;
+            }
+            if (callsFunctions(entry.getValue())) {
+                log.info("Skipping channel {}: template functions are served by the runtime plan", channel);
+                continue;
+            }
+            String className = uniqueClassName(channel, usedNames);
+            String source = channelSource(className, channel, entry.getValue(), registry.messageOf(channel));
+            written.add(Files.writeString(sourceDirectory.resolve(className + ".java"), source));
+            classNames.put(channel, className);
+        }
+        written.add(Files.writeString(sourceDirectory.resolve(PROVIDER_CLASS + ".java"), providerSource(classNames, registry)));
+
+        Path services = outputDirectory.resolve("resources/META-INF/services");
+        Files.createDirectories(services);
+        Files.writeString(services.resolve(GeneratedInjectors.class.getName()), packageName + "." + PROVIDER_CLASS + "\n");
+        return written;
+    }
+
+    private String channelSource(String className, String channel, Channel declared, MessageDefinition message) {
+        // Reject what the runtime would reject
+        ChannelPlan.compile(declared);
+        TemplateCompiler slots = new TemplateCompiler();
+        Map<String, String> xHeaders = declared.getXHeaders();
+        List<String> keys = new ArrayList<>(xHeaders.keySet());
+        List<List<TemplateSegment>> templates = new ArrayList<>();
+        for (String template : xHeaders.values()) {
+            templates.add(parse(template, slots));
+        }
+        List<TemplateSegment> keyTemplate = declared.getXKey() == null ? null : parse(declared.getXKey(), slots);
+        List<TemplateSegment> dedupTemplate = declared.getXDedupKey() == null ? null : parse(declared.getXDedupKey(), slots);
+        int keyHeader = keyTemplate == null ? keys.indexOf(ChannelPlan.DEFAULT_KEY_HEADER) : -1;
+        List<String> fieldPaths = slots.fieldPaths();
+        Map<String, Property> properties = message == null || message.getPayload() == null
+                ? null : message.getPayload().getProperties();
+        for (String path : fieldPaths) {
+            String root = path.split("\\.")[0];
+            if (properties != null && !properties.containsKey(root)) {
+                throw new IllegalArgumentException("Channel " + channel + " references payload field " + path
+                        + " but its message declares no property " + root);
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        header(out);
+        out.append("import com.example.injector.extract.JsonFieldExtractor;\n")
+                .append("import com.example.injector.id.IdGenerator;\n")
+                .append("import com.example.injector.template.ChannelInjector;\n")
+                .append("import com.example.injector.template.MessageContext;\n")
+                .append("import com.example.injector.template.Utf8;\n")
+                .append("import org.apache.kafka.common.header.Headers;\n")
+                .append("import org.apache.kafka.common.header.internals.RecordHeader;\n\n")
+                .append("import java.io.IOException;\n")
+                .append("import java.nio.ByteBuffer;\n")
+                .append("import java.util.List;\n")
+                .append("import java.util.Map;\n")
+                .append("import java.util.function.LongSupplier;\n\n")
+                .append("/**\n * Header injector for channel ").append(javadoc(channel)).append(".\n */\n")
+                .append("public final class ").append(className).append(" implements ChannelInjector {\n")
+                .append("    private static final List<String> HEADER_KEYS = List.of(");
+        for (int i = 0; i < keys.size(); i++) {
+            out.append(i == 0 ? "" : ", ").append(quote(keys.get(i)));
+        }
+        out.append(");\n");
+        int keyBytes = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            keyBytes += keys.get(i).getBytes(StandardCharsets.UTF_8).length;
+            out.append("    private static final String K").append(i).append(" = ").append(quote(keys.get(i))).append(";\n");
+        }
+        out.append("    private static final int KEY_BYTES = ").append(keyBytes).append(";\n");
+        for (int i = 0; i < templates.size(); i++) {
+            constants(out, "V" + i, templates.get(i));
+        }
+        if (keyTemplate != null) {
+            constants(out, "RECORD_KEY", keyTemplate);
+        }
+        if (dedupTemplate != null) {
+            constants(out, "DEDUP_KEY", dedupTemplate);
+        }
+        if (!fieldPaths.isEmpty()) {
+            out.append("    private static final JsonFieldExtractor EXTRACTOR = new JsonFieldExtractor(List.of(");
+            for (int i = 0; i < fieldPaths.size(); i++) {
+                out.append(i == 0 ? "" : ", ").append(quote(fieldPaths.get(i)));
+            }
+            out.append("));\n");
+        }
+        out.append('\n')
+                .append("    private final IdGenerator idGenerator;\n")
+                .append("    private final LongSupplier clock;\n\n")
+                .append("    public ").append(className).append("(IdGenerator idGenerator, LongSupplier clock) {\n")
+                .append("        this.idGenerator = idGenerator;\n")
+                .append("        this.clock = clock;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public List<String> headerKeys() {\n")
+                .append("        return HEADER_KEYS;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public MessageContext read(Object payload) throws IOException {\n")
+                .append("        MessageContext context = new MessageContext(").append(fieldPaths.size()).append(");\n");
+        if (!fieldPaths.isEmpty()) {
+            out.append("        if (payload instanceof Map) {\n")
+                    .append("            Map<?, ?> map = (Map<?, ?>) payload;\n");
+            for (int slot = 0; slot < fieldPaths.size(); slot++) {
+                out.append("            context.setField(").append(slot).append(", ")
+                        .append(mapAccess(fieldPaths.get(slot))).append(");\n");
+            }
+            out.append("        } else if (payload instanceof String) {\n")
+                    .append("            EXTRACTOR.extract((String) payload, context);\n")
+                    .append("        } else if (payload instanceof byte[]) {\n")
+                    .append("            byte[] bytes = (byte[]) payload;\n")
+                    .append("            EXTRACTOR.extract(bytes, 0, bytes.length, context);\n")
+                    .append("        } else if (payload instanceof ByteBuffer) {\n")
+                    .append("            EXTRACTOR.extract((ByteBuffer) payload, context);\n")
+                    .append("        }\n");
+        }
+        out.append("        return context;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public int inject(Headers headers, MessageContext context) {\n");
+        for (int slot = 0; slot < fieldPaths.size(); slot++) {
+            out.append("        Object f").append(slot).append(" = context.field(").append(slot).append("); // ")
+                    .append(fieldPaths.get(slot)).append(type(fieldPaths.get(slot), properties)).append('\n');
+        }
+        StringBuilder total = new StringBuilder("KEY_BYTES");
+        for (int i = 0; i < templates.size(); i++) {
+            String value = value(out, "v" + i, "V" + i, templates.get(i), slots);
+            out.append("        headers.add(new RecordHeader(K").append(i).append(", ").append(value).append("));\n");
+            total.append(" + ").append(value).append(".length");
+            if (i == keyHeader) {
+                out.append("        context.setKey(").append(value).append(");\n");
+            }
+        }
+        if (keyTemplate != null) {
+            String key = value(out, "key", "RECORD_KEY", keyTemplate, slots);
+            out.append("        context.setKey(").append(key).append(");\n");
+        }
+        out.append("        return ").append(total).append(";\n")
+                .append("    }\n");
+        if (dedupTemplate != null) {
+            out.append('\n')
+                    .append("    @Override\n")
+                    .append("    public byte[] dedupKey(MessageContext context) {\n");
+            for (int slot = 0; slot < fieldPaths.size(); slot++) {
+                out.append("        Object f").append(slot).append(" = context.field(").append(slot).append(");\n");
+            }
+            String dedupKey = value(out, "dedupKey", "DEDUP_KEY", dedupTemplate, slots);
+            out.append("        return ").append(dedupKey).append(";\n")
+                    .append("    }\n");
+        }
+        if (fieldPaths.stream().anyMatch(path -> path.contains("."))) {
+            out.append('\n')
+                    .append("    private static Object get(Object value, String key) {\n")
+                    .append("        return value instanceof Map ? ((Map<?, ?>) value).get(key) : null;\n")
+                    .append("    }\n");
+        }
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private static boolean callsFunctions(Channel channel) {
+        List<String> templates = new ArrayList<>(channel.getXHeaders().values());
+        templates.add(channel.getXKey());
+        templates.add(channel.getXDedupKey());
+        for (String template : templates) {
+            if (template != null && TemplateCompiler.parse(template).stream()
+                    .anyMatch(segment -> segment.getKind() == TemplateSegment.Kind.FUNCTION && inlined(segment) == null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<TemplateSegment> parse(String template, TemplateCompiler slots) {
+        List<TemplateSegment> segments = TemplateCompiler.parse(template);
+        for (TemplateSegment segment : segments) {
+            if (segment.getKind() == TemplateSegment.Kind.PAYLOAD_FIELD) {
+                slots.slotOf(segment.getText());
+            }
+        }
+        return segments;
+    }
+
+    private static void constants(StringBuilder out, String name, List<TemplateSegment> segments) {
+        for (int j = 0; j < segments.size(); j++) {
+            TemplateSegment segment = segments.get(j);
+            if (segment.getKind() == TemplateSegment.Kind.LITERAL) {
+                out.append("    private static final byte[] ").append(literalName(name, j, segments.size()))
+                        .append(" = ").append(bytes(segment.getText())).append("; // ")
+                        .append(quote(segment.getText())).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Emits the local holding a template's value unless it is a single constant.
+     *
+     * @return the expression naming the value
+     */
+    private static String value(StringBuilder out, String local, String constant, List<TemplateSegment> segments,
+                                TemplateCompiler slots) {
+        if (segments.size() == 1 && segments.get(0).getKind() == TemplateSegment.Kind.LITERAL) {
+            return literalName(constant, 0, 1);
+        }
+        List<String> parts = new ArrayList<>(segments.size());
+        for (int j = 0; j < segments.size(); j++) {
+            parts.add(expression(segments.get(j), literalName(constant, j, segments.size()), slots));
+        }
+        out.append("        byte[] ").append(local).append(" = ")
+                .append(parts.size() == 1 ? parts.get(0) : "Utf8.concat(" + String.join(", ", parts) + ")")
+                .append(";\n");
+        return local;
+    }
+
+    private String providerSource(Map<String, String> classNames, SpecRegistry registry) {
+        StringBuilder out = new StringBuilder();
+        header(out);
+        out.append("import com.example.injector.codegen.GeneratedInjectors;\n")
+                .append("import com.example.injector.id.IdGenerator;\n")
+                .append("import com.example.injector.model.Channel;\n")
+                .append("import com.example.injector.template.ChannelInjector;\n\n")
+                .append("import java.util.Collections;\n")
+                .append("import java.util.LinkedHashMap;\n")
+                .append("import java.util.Map;\n")
+                .append("import java.util.function.LongSupplier;\n\n")
+                .append("public final class ").append(PROVIDER_CLASS).append(" implements GeneratedInjectors {\n")
+                .append("    private static final Map<String, Channel> CHANNELS = new LinkedHashMap<>();\n\n")
+                .append("    static {\n");
+        int i = 0;
+        for (String name : classNames.keySet()) {
+            Channel channel = registry.getChannels().get(name);
+            out.append("        Map<String, String> h").append(i).append(" = new LinkedHashMap<>();\n");
+            for (Map.Entry<String, String> header : channel.getXHeaders().entrySet()) {
+                out.append("        h").append(i).append(".put(").append(quote(header.getKey())).append(", ")
+                        .append(quote(header.getValue())).append(");\n");
+            }
+            out.append("        Channel c").append(i).append(" = new Channel();\n")
+                    .append("        c").append(i).append(".setXHeaders(Collections.unmodifiableMap(h").append(i).append("));\n");
+            setter(out, i, "setXKey", channel.getXKey());
+            setter(out, i, "setXDedupKey", channel.getXDedupKey());
+            if (channel.getXProducer() != null) {
+                out.append("        Map<String, String> p").append(i).append(" = new LinkedHashMap<>();\n");
+                for (Map.Entry<String, String> setting : channel.getXProducer().entrySet()) {
+                    out.append("        p").append(i).append(".put(").append(quote(setting.getKey())).append(", ")
+                            .append(quote(setting.getValue())).append(");\n");
+                }
+                out.append("        c").append(i).append(".setXProducer(Collections.unmodifiableMap(p").append(i).append("));\n");
+            }
+            out.append("        CHANNELS.put(").append(quote(name)).append(", c").append(i).append(");\n");
+            i++;
+        }
+        out.append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public Map<String, Channel> channels() {\n")
+                .append("        return Collections.unmodifiableMap(CHANNELS);\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public ChannelInjector create(String channel, IdGenerator idGenerator, LongSupplier clock) {\n")
+                .append("        switch (channel) {\n");
+        classNames.forEach((channel, className) -> out.append("            case ").append(quote(channel))
+                .append(":\n                return new ").append(className).append("(idGenerator, clock);\n"));
+        out.append("            default:\n")
+                .append("                throw new IllegalArgumentException(\"No generated injector for channel \" + channel);\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+        return out.toString();
+    }
+
+    private static void setter(StringBuilder out, int channel, String setter, String value) {
+        if (value != null) {
+            out.append("        c").append(channel).append('.').append(setter).append('(').append(quote(value)).append(");\n");
+        }
+    }
+
+    private void header(StringBuilder out) {
+        out.append("// Generated by ").append(InjectorGenerator.class.getName()).append(". Do not edit.\n")
+                .append("package ").append(packageName).append(";\n\n");
+    }
+
+    private static String expression(TemplateSegment segment, String literalName, TemplateCompiler slots) {
+        switch (segment.getKind()) {
+            case UUID:
+                return "idGenerator.next()";
+            case TIMESTAMP:
+                return "Utf8.encode(context.timestamp(clock))";
+            case PAYLOAD_FIELD:
+                return "Utf8.encode(f" + slots.slotOf(segment.getText()) + ")";
+            case FUNCTION:
+                return "context." + inlined(segment) + "(idGenerator)";
+            default:
+                return literalName;
+        }
+    }
+
+    /**
+     * @return the name of an {@link #INLINED_FUNCTIONS} call without arguments, or null
+     */
+    private static String inlined(TemplateSegment segment) {
+        String call = segment.getText().replaceAll("\\s", "");
+        String name = call.endsWith("()") ? call.substring(0, call.length() - 2) : null;
+        return INLINED_FUNCTIONS.contains(name) ? name : null;
+    }
+
+    private static String mapAccess(String path) {
+        String[] segments = path.split("\\.");
+        String access = "map.get(" + quote(segments[0]) + ")";
+        for (int i = 1; i < segments.length; i++) {
+            access = "get(" + access + ", " + quote(segments[i]) + ")";
+        }
+        return access;
+    }
+
+    private static String type(String path, Map<String, Property> properties) {
+        if (path.contains(".") || properties == null || properties.get(path) == null
+                || properties.get(path).getType() == null) {
+            return "";
+        }
+        return " (" + properties.get(path).getType() + ")";
+    }
+
+    private static String literalName(String constant, int segment, int segments) {
+        return segments == 1 ? constant : constant + "_" + segment;
+    }
+
+    private static String uniqueClassName(String channel, Set<String> used) {
+        StringBuilder name = new StringBuilder();
+        for (String part : channel.split("[^A-Za-z0-9]+")) {
+            if (!part.isEmpty()) {
+                name.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+            }
+        }
+        if (name.length() == 0 || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            name.insert(0, "Channel");
+        }
+        String base = name.append("HeaderInjector").toString();
+        String candidate = base;
+        for (int i = 2; !used.add(candidate); i++) {
+            candidate = base + i;
+        }
+        return candidate;
+    }
+
+    private static String bytes(String text) {
+        StringBuilder out = new StringBuilder("{");
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            out.append(i == 0 ? "" : ", ").append(bytes[i]);
+        }
+        return out.append('}').toString();
+    }
+
+    private static String quote(String text) {
+        StringBuilder out = new StringBuilder("\"");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c >= 0x20 && c < 0x7f) {
+                out.append(c);
+            } else {
+                out.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private static String javadoc(String text) {
+        return text.replace("*/", "*&#47;");
+    }
+
+    private static List<AsyncApiSpec> readSpecs(Path location) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper(new YAMLFactory());
+        List<Path> files;
+        if (Files.isDirectory(location)) {
+            try (Stream<Path> listing = Files.list(location)) {
+                files = listing.filter(SpecWatcher::isSpecFile).sorted().toList();
+            }
+        } else {
+            files = List.of(location);
+        }
+        List<AsyncApiSpec> specs = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                specs.add(objectMapper.readValue(inputStream, AsyncApiSpec.class));
+            }
+        }
+        return specs;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.injector.consumer;
+
+import com.example.injector.codec.HeaderEncoding;
+import com.example.injector.codec.PackedHeaders;
+import com.example.injector.function.HeaderFunctions;
+import com.example.injector.id.IdStrategy;
+import com.example.injector.model.Channel;
+import org.apache.kafka.common.header.Headers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The headers one channel declares, as a consumer sees them: keys in spec
+ * order, their types, the encoding and ID strategy they are written with, and
+ * an index per key. Resolve indexes once with
+ * {@link #indexOf(String)} and read through them on every record.
+ */
+public final class ChannelHeaders {
+    private final List<String> keys;
+    private final Map<String, Integer> indexes;
+    private final HeaderType[] types;
+    private final HeaderEncoding encoding;
+    private final IdStrategy idStrategy;
+    private final boolean packed;
+    private final int packedKeyHash;
+
+    private ChannelHeaders(List<String> keys, HeaderType[] types, HeaderEncoding encoding, IdStrategy idStrategy,
+                           boolean packed) {
+        this.keys = keys;
+        this.indexes = new HashMap<>(keys.size() * 2);
+        for (int i = 0; i < keys.size(); i++) {
+            indexes.put(keys.get(i), i);
+        }
+        this.types = types;
+        this.encoding = encoding;
+        this.idStrategy = idStrategy;
+        this.packed = packed;
+        this.packedKeyHash = PackedHeaders.keyHash(keys);
+    }
+
+    public static ChannelHeaders compile(Channel channel) {
+        return compile(channel, IdStrategy.RANDOM, HeaderFunctions.builtins());
+    }
+
+    /**
+     * @param idStrategy the strategy the producer generates IDs with
+     * @param functions  the functions the producer's templates call
+     */
+    public static ChannelHeaders compile(Channel channel, IdStrategy idStrategy, HeaderFunctions functions) {
+        Map<String, String> xHeaders = channel.getXHeaders() == null ? Map.of() : channel.getXHeaders();
+        HeaderType[] types = new HeaderType[xHeaders.size()];
+        int i = 0;
+        for (String template : xHeaders.values()) {
+            types[i++] = HeaderType.of(template, functions);
+        }
+        return new ChannelHeaders(List.copyOf(xHeaders.keySet()), types, HeaderEncoding.of(channel.getXHeaderEncoding()),
+                idStrategy, Boolean.TRUE.equals(channel.getXHeaderPacked()));
+    }
+
+    public List<String> keys() {
+        return keys;
+    }
+
+    /**
+     * @return the index of a declared header, or -1
+     */
+    public int indexOf(String key) {
+        Integer index = indexes.get(key);
+        return index == null ? -1 : index;
+    }
+
+    public HeaderType type(int index) {
+        return types[index];
+    }
+
+    /**
+     * The declared {@code x-header-encoding}; packed headers carry their own.
+     */
+    public HeaderEncoding encoding() {
+        return encoding;
+    }
+
+    public IdStrategy idStrategy() {
+        return idStrategy;
+    }
+
+    /**
+     * Whether the values travel in one {@link PackedHeaders#KEY} header.
+     */
+    public boolean isPacked() {
+        return packed;
+    }
+
+    int packedKeyHash() {
+        return packedKeyHash;
+    }
+
+    public HeaderView view(Headers headers) {
+        return new HeaderView(this, headers);
+    }
+}
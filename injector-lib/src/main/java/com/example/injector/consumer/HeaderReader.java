@@ -0,0 +1,106 @@
+package com.example.injector.consumer;
+
+import com.example.injector.function.HeaderFunctions;
+import com.example.injector.model.AsyncApiSpec;
+import com.example.injector.routing.TopicRouter;
+import com.example.injector.service.HeaderInjectorOptions;
+import com.example.injector.service.SpecRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumer counterpart of {@code HeaderInjector}: resolves a record's topic to
+ * its channel, parameterized channels included, and wraps the record headers in
+ * a {@link HeaderView}. Immutable and safe to share between consumer threads.
+ */
+public final class HeaderReader {
+    private final SpecRegistry registry;
+    private final TopicRouter<ChannelHeaders> router;
+
+    private HeaderReader(SpecRegistry registry, HeaderInjectorOptions options) {
+        this.registry = registry;
+        HeaderFunctions functions = HeaderFunctions.load(options.getFunctions());
+        Map<String, ChannelHeaders> channels = new HashMap<>();
+        registry.getChannels().forEach((name, channel) -> {
+            if (channel != null && channel.getXHeaders() != null) {
+                channels.put(name, ChannelHeaders.compile(channel, options.getIdStrategy(), functions));
+            }
+        });
+        this.router = new TopicRouter<>(channels);
+    }
+
+    /**
+     * Reads the same channels a producer's {@code HeaderInjector#getRegistry()}
+     * serves, written with the default options.
+     */
+    public static HeaderReader of(SpecRegistry registry) {
+        return of(registry, HeaderInjectorOptions.defaults());
+    }
+
+    /**
+     * Reads headers written by an injector with these options; only the ID
+     * strategy and the functions matter.
+     */
+    public static HeaderReader of(SpecRegistry registry, HeaderInjectorOptions options) {
+        return new HeaderReader(registry, options);
+    }
+
+    public static HeaderReader load(InputStream specInputStream) throws IOException {
+        return load(List.of(specInputStream));
+    }
+
+    public static HeaderReader load(List<InputStream> specInputStreams) throws IOException {
+        return load(specInputStreams, HeaderInjectorOptions.defaults());
+    }
+
+    /**
+     * Merges the channels of all given specs.
+     */
+    public static HeaderReader load(List<InputStream> specInputStreams, HeaderInjectorOptions options) throws IOException {
+        List<AsyncApiSpec> specs = new ArrayList<>(specInputStreams.size());
+        for (InputStream inputStream : specInputStreams) {
+            specs.add(Yaml.MAPPER.readValue(inputStream, AsyncApiSpec.class));
+        }
+        try {
+            return new HeaderReader(SpecRegistry.merge(specs), options);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    public SpecRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @return the declared headers of the channel matching {@code topic}, or null
+     */
+    public ChannelHeaders channel(String topic) {
+        return router.route(topic);
+    }
+
+    /**
+     * @return a view over the record's headers, or null if its topic declares no headers
+     */
+    public HeaderView read(ConsumerRecord<?, ?> record) {
+        return read(record.topic(), record.headers());
+    }
+
+    public HeaderView read(String topic, Headers headers) {
+        ChannelHeaders channel = router.route(topic);
+        return channel == null ? null : channel.view(headers);
+    }
+
+    private static final class Yaml {
+        static final ObjectMapper MAPPER = new ObjectMapper(new YAMLFactory());
+    }
+}
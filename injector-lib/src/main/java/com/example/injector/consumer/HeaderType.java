@@ -0,0 +1,37 @@
+package com.example.injector.consumer;
+
+import com.example.injector.function.HeaderFunction;
+import com.example.injector.function.HeaderFunctions;
+import com.example.injector.template.TemplateCompiler;
+import com.example.injector.template.TemplateSegment;
+
+import java.util.List;
+
+/**
+ * What a declared header carries, derived from its {@code x-headers} template.
+ */
+public enum HeaderType {
+    TEXT,
+    /**
+     * Template is exactly {@code ${uuid()}} or a call of a function that
+     * {@link HeaderFunction#returnsId() returns an ID}, e.g. {@code ${messageId()}}.
+     */
+    ID,
+    /** Template is exactly {@code ${timestamp()}}. */
+    TIMESTAMP;
+
+    public static HeaderType of(String template) {
+        return of(template, HeaderFunctions.builtins());
+    }
+
+    public static HeaderType of(String template, HeaderFunctions functions) {
+        List<TemplateSegment> segments = TemplateCompiler.parse(template);
+        if (segments.size() != 1) {
+            return TEXT;
+        }
+        if (segments.get(0).getKind() == TemplateSegment.Kind.TIMESTAMP) {
+            return TIMESTAMP;
+        }
+        return TemplateCompiler.isId(segments.get(0), functions) ? ID : TEXT;
+    }
+}
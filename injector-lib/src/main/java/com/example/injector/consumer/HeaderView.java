@@ -0,0 +1,199 @@
+package com.example.injector.consumer;
+
+import com.example.injector.codec.HeaderDecoder;
+import com.example.injector.codec.HeaderEncoding;
+import com.example.injector.codec.PackedHeaders;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Typed view over the declared headers of one record. Nothing is read until
+ * the first lookup, which walks the record headers once (or locates the values
+ * inside the packed header). IDs and timestamps are then decoded straight
+ * from the header bytes in the encoding the channel declares, or the packed
+ * header's flags say. Not thread-safe, use one view per record.
+ */
+public final class HeaderView {
+    private final ChannelHeaders channel;
+    private final Headers headers;
+    private boolean resolved;
+    private byte[][] values;
+    private byte[] packed;
+    private int[] bounds;
+
+    HeaderView(ChannelHeaders channel, Headers headers) {
+        this.channel = channel;
+        this.headers = headers;
+    }
+
+    public ChannelHeaders channel() {
+        return channel;
+    }
+
+    public boolean contains(int index) {
+        resolve();
+        return channel.isPacked() ? packed != null : values[index] != null;
+    }
+
+    public boolean contains(String key) {
+        int index = channel.indexOf(key);
+        return index >= 0 && contains(index);
+    }
+
+    /**
+     * The raw value, or null if the record lacks it. Values of packed headers
+     * are copied out.
+     */
+    public byte[] bytes(int index) {
+        if (!contains(index)) {
+            return null;
+        }
+        if (packed == null) {
+            return values[index];
+        }
+        int offset = bounds[2 * index];
+        return Arrays.copyOfRange(packed, offset, offset + bounds[2 * index + 1]);
+    }
+
+    public byte[] bytes(String key) {
+        return bytes(index(key));
+    }
+
+    /**
+     * The value as text; binary IDs and timestamps are rendered the way a text
+     * channel would have written them.
+     */
+    public String text(int index) {
+        if (!contains(index)) {
+            return null;
+        }
+        HeaderEncoding encoding = encoding(index);
+        if (encoding == HeaderEncoding.BINARY && channel.type(index) == HeaderType.ID) {
+            return channel.idStrategy().text(source(index), offset(index));
+        }
+        if (encoding == HeaderEncoding.BINARY && channel.type(index) == HeaderType.TIMESTAMP) {
+            return Long.toString(timestamp(index));
+        }
+        return HeaderDecoder.text(source(index), offset(index), length(index));
+    }
+
+    public String text(String key) {
+        return text(index(key));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a UUID, e.g. an ID header of a channel written
+     *                                  with the ULID strategy
+     */
+    public UUID uuid(int index) {
+        if (!contains(index)) {
+            return null;
+        }
+        if (channel.type(index) == HeaderType.ID && channel.idStrategy().isUlid()) {
+            throw new IllegalArgumentException("Header " + channel.keys().get(index) + " holds ULIDs, not UUIDs");
+        }
+        return HeaderDecoder.uuid(source(index), offset(index), length(index), encoding(index));
+    }
+
+    public UUID uuid(String key) {
+        return uuid(index(key));
+    }
+
+    /**
+     * @throws NoSuchElementException if the record lacks the header
+     */
+    public long timestamp(int index) {
+        if (!contains(index)) {
+            throw new NoSuchElementException("Missing header " + channel.keys().get(index));
+        }
+        return HeaderDecoder.timestamp(source(index), offset(index), length(index), encoding(index));
+    }
+
+    public long timestamp(String key) {
+        return timestamp(index(key));
+    }
+
+    /**
+     * The value decoded as its {@link HeaderType}: a {@link UUID} (or the ULID
+     * String under the ULID strategy), a {@link Long} or a String; null if the
+     * record lacks it.
+     */
+    public Object value(int index) {
+        if (!contains(index)) {
+            return null;
+        }
+        switch (channel.type(index)) {
+            case ID:
+                return channel.idStrategy().isUlid()
+                        ? HeaderDecoder.id(source(index), offset(index), length(index), encoding(index), channel.idStrategy())
+                        : uuid(index);
+            case TIMESTAMP:
+                return timestamp(index);
+            default:
+                return text(index);
+        }
+    }
+
+    public Object value(String key) {
+        return value(index(key));
+    }
+
+    /**
+     * Only ID and timestamp headers are ever binary; packed headers carry
+     * their encoding in the flags byte.
+     */
+    private HeaderEncoding encoding(int index) {
+        if (channel.type(index) == HeaderType.TEXT) {
+            return HeaderEncoding.TEXT;
+        }
+        return packed == null ? channel.encoding() : HeaderDecoder.encoding(packed);
+    }
+
+    private byte[] source(int index) {
+        return packed == null ? values[index] : packed;
+    }
+
+    private int offset(int index) {
+        return packed == null ? 0 : bounds[2 * index];
+    }
+
+    private int length(int index) {
+        return packed == null ? values[index].length : bounds[2 * index + 1];
+    }
+
+    private int index(String key) {
+        int index = channel.indexOf(key);
+        if (index < 0) {
+            throw new IllegalArgumentException("Header " + key + " is not declared for this channel");
+        }
+        return index;
+    }
+
+    private void resolve() {
+        if (resolved) {
+            return;
+        }
+        if (channel.isPacked()) {
+            Header header = headers.lastHeader(PackedHeaders.KEY);
+            if (header != null && header.value() != null) {
+                bounds = HeaderDecoder.locate(header.value(), channel.keys().size(), channel.packedKeyHash());
+                packed = header.value();
+            }
+            resolved = true;
+            return;
+        }
+        byte[][] found = new byte[channel.keys().size()][];
+        for (Header header : headers) {
+            int index = channel.indexOf(header.key());
+            if (index >= 0) {
+                found[index] = header.value();
+            }
+        }
+        values = found;
+        resolved = true;
+    }
+}
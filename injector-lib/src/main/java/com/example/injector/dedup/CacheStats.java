@@ -0,0 +1,15 @@
+package com.example.injector.dedup;
+
+import lombok.Value;
+
+/**
+ * Point-in-time counters of a {@link HeaderCache}. Evictions include entries
+ * dropped for size and entries found expired.
+ */
+@Value
+public class CacheStats {
+    long hits;
+    long misses;
+    long evictions;
+    int size;
+}
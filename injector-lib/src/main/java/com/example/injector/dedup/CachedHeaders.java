@@ -0,0 +1,45 @@
+package com.example.injector.dedup;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.util.Arrays;
+
+/**
+ * The headers and record key one message was injected with. Header instances
+ * are shared between the original record and its retries; they are never
+ * modified after creation.
+ */
+public final class CachedHeaders {
+    private final Header[] headers;
+    private final byte[] key;
+    private final int bytes;
+
+    private CachedHeaders(Header[] headers, byte[] key, int bytes) {
+        this.headers = headers;
+        this.key = key;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Captures the last {@code count} headers, the ones an injector just added.
+     */
+    public static CachedHeaders capture(Headers headers, int count, byte[] key, int bytes) {
+        Header[] all = headers.toArray();
+        return new CachedHeaders(Arrays.copyOfRange(all, all.length - count, all.length), key, bytes);
+    }
+
+    /**
+     * @return the number of key and value bytes added
+     */
+    public int addTo(Headers target) {
+        for (Header header : headers) {
+            target.add(header);
+        }
+        return bytes;
+    }
+
+    public byte[] key() {
+        return key;
+    }
+}
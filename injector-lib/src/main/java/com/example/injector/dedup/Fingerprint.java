@@ -0,0 +1,114 @@
+package com.example.injector.dedup;
+
+import lombok.EqualsAndHashCode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 128-bit MurmurHash3 (x64) of a payload or business key. Wide enough that two
+ * different messages sharing a fingerprint is not a practical concern, and
+ * much cheaper than a cryptographic digest.
+ */
+@EqualsAndHashCode
+public final class Fingerprint {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final long high;
+    private final long low;
+
+    private Fingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public long high() {
+        return high;
+    }
+
+    public long low() {
+        return low;
+    }
+
+    public static Fingerprint of(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return of(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Hashes the buffer's remaining bytes without changing its position.
+     */
+    public static Fingerprint of(ByteBuffer value) {
+        if (value.hasArray()) {
+            return of(value.array(), value.arrayOffset() + value.position(), value.remaining());
+        }
+        byte[] bytes = new byte[value.remaining()];
+        value.duplicate().get(bytes);
+        return of(bytes, 0, bytes.length);
+    }
+
+    public static Fingerprint of(byte[] data, int offset, int length) {
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = length >>> 4;
+        for (int i = 0; i < blocks; i++) {
+            int at = offset + (i << 4);
+            long k1 = littleEndian(data, at, 8);
+            long k2 = littleEndian(data, at + 8, 8);
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        int tail = offset + (blocks << 4);
+        int remaining = length & 15;
+        if (remaining > 8) {
+            h2 ^= mixK2(littleEndian(data, tail + 8, remaining - 8));
+        }
+        if (remaining > 0) {
+            h1 ^= mixK1(littleEndian(data, tail, Math.min(remaining, 8)));
+        }
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new Fingerprint(h1, h2);
+    }
+
+    private static long littleEndian(byte[] data, int offset, int length) {
+        long value = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xffL);
+        }
+        return value;
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
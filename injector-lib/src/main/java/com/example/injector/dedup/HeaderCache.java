@@ -0,0 +1,164 @@
+package com.example.injector.dedup;
+
+import lombok.EqualsAndHashCode;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of the headers injected per message, so that a retried publish
+ * of the same logical message gets the same {@code causationId}, timestamps and
+ * key instead of fresh ones. Entries are keyed by topic and {@link Fingerprint}
+ * and expire after a TTL. The cache is split into lock-striped LRU segments so
+ * concurrent producers rarely contend; each segment holds an equal share of
+ * {@code maxEntries}.
+ *
+ * <p>Two first attempts of the same message racing each other may both miss;
+ * the first one stored wins for later retries.
+ */
+public final class HeaderCache {
+    private static final int DEFAULT_STRIPES = 16;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public HeaderCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, DEFAULT_STRIPES, System::nanoTime);
+    }
+
+    /**
+     * @param stripes number of independently locked segments, rounded up to a power of two
+     */
+    public HeaderCache(int maxEntries, Duration ttl, int stripes, LongSupplier nanoClock) {
+        if (maxEntries <= 0 || ttl.isNegative() || ttl.isZero() || stripes <= 0) {
+            throw new IllegalArgumentException("maxEntries, ttl and stripes must be positive");
+        }
+        int segmentCount = Integer.highestOneBit(Math.min(stripes, maxEntries) - 1) << 1;
+        segmentCount = Math.max(segmentCount, 1);
+        this.segments = new Segment[segmentCount];
+        int perSegment = Math.max(1, maxEntries / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return the cached headers, or null if absent or expired
+     */
+    public CachedHeaders get(String topic, Fingerprint fingerprint) {
+        Key key = new Key(topic, fingerprint);
+        Segment segment = segmentFor(key);
+        long now = nanoClock.getAsLong();
+        CachedHeaders headers = null;
+        segment.lock.lock();
+        try {
+            Entry entry = segment.get(key);
+            if (entry != null) {
+                if (now - entry.expiresAt < 0) {
+                    headers = entry.headers;
+                } else {
+                    segment.remove(key);
+                    evictions.increment();
+                }
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        (headers != null ? hits : misses).increment();
+        return headers;
+    }
+
+    /**
+     * Stores headers unless an unexpired entry is already present.
+     */
+    public void put(String topic, Fingerprint fingerprint, CachedHeaders headers) {
+        Key key = new Key(topic, fingerprint);
+        Segment segment = segmentFor(key);
+        long now = nanoClock.getAsLong();
+        segment.lock.lock();
+        try {
+            Entry existing = segment.get(key);
+            if (existing == null || now - existing.expiresAt >= 0) {
+                segment.put(key, new Entry(headers, now + ttlNanos));
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(Key key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String topic;
+        private final Fingerprint fingerprint;
+
+        Key(String topic, Fingerprint fingerprint) {
+            this.topic = topic;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private static final class Entry {
+        private final CachedHeaders headers;
+        private final long expiresAt;
+
+        Entry(CachedHeaders headers, long expiresAt) {
+            this.headers = headers;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Access-ordered map evicting its least recently used entry past capacity.
+     * Only touched while holding {@link #lock}.
+     */
+    private final class Segment extends LinkedHashMap<Key, Entry> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
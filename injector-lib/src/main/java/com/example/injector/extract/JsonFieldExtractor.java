@@ -0,0 +1,229 @@
+package com.example.injector.extract;
+
+import com.example.injector.template.MessageContext;
+import com.example.injector.validation.PayloadSchema;
+import com.example.injector.validation.PayloadValidationException;
+import com.example.injector.validation.SchemaType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pulls the payload fields referenced by a channel's templates out of raw JSON
+ * with a single streaming pass. Unreferenced subtrees are skipped without being
+ * materialized and parsing stops as soon as every referenced field was seen.
+ * Only scalar values are extracted; objects and arrays resolve to an empty value.
+ *
+ * <p>Given a {@link PayloadSchema}, the same pass also checks the types and
+ * required properties it declares. The declared subtrees are then always
+ * walked to the end, but everything else is still skipped.
+ */
+public final class JsonFieldExtractor implements PayloadExtractor {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String[] NONE = new String[0];
+
+    private final Node root = new Node();
+    private final int fieldCount;
+    private final boolean validating;
+
+    /**
+     * @param fieldPaths dotted paths relative to the payload, e.g. {@code customer.id};
+     *                   the list index is the slot the value is written to
+     */
+    public JsonFieldExtractor(List<String> fieldPaths) {
+        this(fieldPaths, null);
+    }
+
+    /**
+     * @param schema checked while extracting, may be null
+     */
+    public JsonFieldExtractor(List<String> fieldPaths, PayloadSchema schema) {
+        this.fieldCount = fieldPaths.size();
+        this.validating = schema != null;
+        for (int slot = 0; slot < fieldPaths.size(); slot++) {
+            Node node = root;
+            for (String segment : fieldPaths.get(slot).split("\\.")) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            node.slot = slot;
+        }
+        if (schema != null) {
+            merge(root, schema);
+        }
+    }
+
+    private static void merge(Node node, PayloadSchema schema) {
+        node.type = schema.type();
+        node.path = schema.path();
+        node.required = new String[schema.required().size()];
+        for (int i = 0; i < node.required.length; i++) {
+            String name = schema.required().get(i);
+            node.children.computeIfAbsent(name, s -> new Node()).requiredIndex = i;
+            node.required[i] = schema.path(name);
+        }
+        schema.properties().forEach((name, property) -> merge(node.children.computeIfAbsent(name, s -> new Node()), property));
+    }
+
+    @Override
+    public void extract(String json, MessageContext context) throws IOException {
+        if (fieldCount == 0 && !validating) {
+            return;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            extract(parser, context);
+        }
+    }
+
+    @Override
+    public void extract(byte[] json, int offset, int length, MessageContext context) throws IOException {
+        if (fieldCount == 0 && !validating) {
+            return;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(json, offset, length)) {
+            extract(parser, context);
+        }
+    }
+
+    /**
+     * Heap buffers are parsed in place; direct buffers are streamed without copying.
+     */
+    @Override
+    public void extract(ByteBuffer json, MessageContext context) throws IOException {
+        if (fieldCount == 0 && !validating) {
+            return;
+        }
+        if (json.hasArray()) {
+            extract(json.array(), json.arrayOffset() + json.position(), json.remaining(), context);
+            return;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(new ByteBufferBackedInputStream(json.duplicate()))) {
+            extract(parser, context);
+        }
+    }
+
+    private void extract(JsonParser parser, MessageContext context) throws IOException {
+        JsonToken token = parser.nextToken();
+        check(root, token);
+        if (token == JsonToken.START_OBJECT) {
+            readObject(parser, root, context, fieldCount);
+        }
+    }
+
+    private int readObject(JsonParser parser, Node node, MessageContext context, int remaining) throws IOException {
+        boolean[] present = node.required.length == 0 ? null : new boolean[node.required.length];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Node child = node.children.get(parser.currentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+            if (child.requiredIndex >= 0 && present != null) {
+                present[child.requiredIndex] = true;
+            }
+            check(child, token);
+            if (token.isScalarValue()) {
+                if (child.slot >= 0 && context.field(child.slot) == null && token != JsonToken.VALUE_NULL) {
+                    context.setField(child.slot, scalarValue(parser, token));
+                    remaining--;
+                }
+            } else if (token == JsonToken.START_OBJECT && !child.children.isEmpty()) {
+                remaining = readObject(parser, child, context, remaining);
+            } else {
+                parser.skipChildren();
+            }
+            if (remaining == 0 && !validating) {
+                return 0;
+            }
+        }
+        if (present != null) {
+            for (int i = 0; i < present.length; i++) {
+                if (!present[i]) {
+                    throw PayloadValidationException.missing(node.required[i]);
+                }
+            }
+        }
+        return remaining;
+    }
+
+    private static void check(Node node, JsonToken token) {
+        if (node.type != null && !matches(node.type, token)) {
+            throw PayloadValidationException.typeMismatch(node.path, node.type, describe(token));
+        }
+    }
+
+    private static boolean matches(SchemaType type, JsonToken token) {
+        switch (type) {
+            case STRING:
+                return token == JsonToken.VALUE_STRING;
+            case INTEGER:
+                return token == JsonToken.VALUE_NUMBER_INT;
+            case NUMBER:
+                return token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT;
+            case BOOLEAN:
+                return token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE;
+            case OBJECT:
+                return token == JsonToken.START_OBJECT;
+            case ARRAY:
+                return token == JsonToken.START_ARRAY;
+            default:
+                return token == JsonToken.VALUE_NULL;
+        }
+    }
+
+    private static String describe(JsonToken token) {
+        if (token == null) {
+            return "nothing";
+        }
+        switch (token) {
+            case VALUE_STRING:
+                return "string";
+            case VALUE_NUMBER_INT:
+                return "integer";
+            case VALUE_NUMBER_FLOAT:
+                return "number";
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return "boolean";
+            case START_OBJECT:
+                return "object";
+            case START_ARRAY:
+                return "array";
+            case VALUE_NULL:
+                return "null";
+            default:
+                return token.asString();
+        }
+    }
+
+    private static Object scalarValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NUMBER_INT:
+                JsonParser.NumberType type = parser.getNumberType();
+                return type == JsonParser.NumberType.BIG_INTEGER ? parser.getText() : parser.getLongValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return parser.getText();
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private int slot = -1;
+        private SchemaType type;
+        private String path;
+        private String[] required = NONE;
+        private int requiredIndex = -1;
+    }
+}
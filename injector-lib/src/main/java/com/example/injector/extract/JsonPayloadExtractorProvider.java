@@ -0,0 +1,27 @@
+package com.example.injector.extract;
+
+import com.example.injector.validation.PayloadSchema;
+
+import java.util.List;
+
+/**
+ * Built-in provider for {@code application/json} and {@code +json} media types.
+ */
+public final class JsonPayloadExtractorProvider implements PayloadExtractorProvider {
+    public static final String CONTENT_TYPE = "application/json";
+
+    @Override
+    public boolean supports(String contentType) {
+        return contentType.equals(CONTENT_TYPE) || contentType.endsWith("+json");
+    }
+
+    @Override
+    public PayloadExtractor create(List<String> fieldPaths) {
+        return new JsonFieldExtractor(fieldPaths);
+    }
+
+    @Override
+    public PayloadExtractor create(List<String> fieldPaths, PayloadSchema schema) {
+        return new JsonFieldExtractor(fieldPaths, schema);
+    }
+}
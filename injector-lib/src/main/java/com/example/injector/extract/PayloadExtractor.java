@@ -0,0 +1,37 @@
+package com.example.injector.extract;
+
+import com.example.injector.template.MessageContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the payload fields one channel's templates reference, in slot order,
+ * from a serialized payload. Implementations are created once per channel by a
+ * {@link PayloadExtractorProvider} and must be thread-safe. They should read
+ * only the referenced fields rather than deserializing the whole payload.
+ */
+public interface PayloadExtractor {
+
+    void extract(byte[] payload, int offset, int length, MessageContext context) throws IOException;
+
+    /**
+     * Reads from the buffer's remaining bytes without changing its position.
+     * Heap buffers are read in place; direct buffers are copied by default.
+     */
+    default void extract(ByteBuffer payload, MessageContext context) throws IOException {
+        if (payload.hasArray()) {
+            extract(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining(), context);
+        } else {
+            byte[] copy = new byte[payload.remaining()];
+            payload.duplicate().get(copy);
+            extract(copy, 0, copy.length, context);
+        }
+    }
+
+    default void extract(String payload, MessageContext context) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        extract(bytes, 0, bytes.length, context);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.injector.extract;
+
+import com.example.injector.validation.PayloadSchema;
+
+import java.util.List;
+
+/**
+ * Service provider interface for payload formats. Providers are discovered with
+ * {@link java.util.ServiceLoader} (register them in
+ * {@code META-INF/services/com.example.injector.extract.PayloadExtractorProvider})
+ * or passed through {@code HeaderInjectorOptions.payloadExtractor(...)}, and are
+ * selected per channel by the message's {@code contentType}, falling back to the
+ * spec's {@code defaultContentType} and then to JSON.
+ *
+ * <p>An Avro or Protobuf provider would typically use the channel's schema to
+ * skip straight to the referenced fields without materializing the record.
+ */
+public interface PayloadExtractorProvider {
+
+    boolean supports(String contentType);
+
+    /**
+     * @param fieldPaths dotted paths relative to the payload; the list index is the slot to fill
+     */
+    PayloadExtractor create(List<String> fieldPaths);
+
+    /**
+     * Creates an extractor that also validates the payload against the channel's
+     * message schema in the same pass, throwing
+     * {@link com.example.injector.validation.PayloadValidationException}. Formats
+     * whose serializers already enforce a schema, such as Avro, can keep this
+     * default, which does not validate.
+     *
+     * @param schema the compiled message schema, never null
+     */
+    default PayloadExtractor create(List<String> fieldPaths, PayloadSchema schema) {
+        return create(fieldPaths);
+    }
+}
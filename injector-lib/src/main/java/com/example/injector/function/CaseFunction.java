@@ -0,0 +1,54 @@
+package com.example.injector.function;
+
+import com.example.injector.template.ValueResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * {@code lower(value)} and {@code upper(value)}, locale independent. ASCII
+ * values are converted byte by byte.
+ */
+final class CaseFunction implements HeaderFunction {
+    private final boolean upper;
+
+    CaseFunction(boolean upper) {
+        this.upper = upper;
+    }
+
+    @Override
+    public String name() {
+        return upper ? "upper" : "lower";
+    }
+
+    @Override
+    public ValueResolver compile(FunctionCall call) {
+        call.requireArity(1, 1);
+        ValueResolver value = call.argument(0);
+        return context -> convert(value.resolve(context));
+    }
+
+    /**
+     * Case mapping makes a value at most three times longer in UTF-8, e.g. {@code upper('ΐ')}.
+     */
+    @Override
+    public int maxBytes(FunctionCall call, int[] argumentBytes) {
+        return argumentBytes[0] * 3;
+    }
+
+    private byte[] convert(byte[] value) {
+        byte[] converted = new byte[value.length];
+        for (int i = 0; i < value.length; i++) {
+            byte b = value[i];
+            if (b < 0) {
+                String text = new String(value, StandardCharsets.UTF_8);
+                return (upper ? text.toUpperCase(Locale.ROOT) : text.toLowerCase(Locale.ROOT)).getBytes(StandardCharsets.UTF_8);
+            }
+            if (upper && b >= 'a' && b <= 'z' || !upper && b >= 'A' && b <= 'Z') {
+                b ^= 0x20;
+            }
+            converted[i] = b;
+        }
+        return converted;
+    }
+}
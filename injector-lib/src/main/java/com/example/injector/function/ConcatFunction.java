@@ -0,0 +1,36 @@
+package com.example.injector.function;
+
+import com.example.injector.template.Utf8;
+import com.example.injector.template.ValueResolver;
+
+/**
+ * {@code concat(value, value...)}: the values joined without separator.
+ */
+final class ConcatFunction implements HeaderFunction {
+    @Override
+    public String name() {
+        return "concat";
+    }
+
+    @Override
+    public ValueResolver compile(FunctionCall call) {
+        call.requireArity(1, Integer.MAX_VALUE);
+        ValueResolver[] parts = call.arguments().toArray(new ValueResolver[0]);
+        return context -> {
+            byte[][] values = new byte[parts.length][];
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = parts[i].resolve(context);
+            }
+            return Utf8.concat(values);
+        };
+    }
+
+    @Override
+    public int maxBytes(FunctionCall call, int[] argumentBytes) {
+        int bytes = 0;
+        for (int argument : argumentBytes) {
+            bytes += argument;
+        }
+        return bytes;
+    }
+}
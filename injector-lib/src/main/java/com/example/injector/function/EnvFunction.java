@@ -0,0 +1,38 @@
+package com.example.injector.function;
+
+import com.example.injector.template.ValueResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@code env('NAME'[, 'default'])}: an environment variable, read once when the
+ * spec is loaded.
+ */
+final class EnvFunction implements HeaderFunction {
+    private final UnaryOperator<String> environment;
+
+    EnvFunction(UnaryOperator<String> environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public String name() {
+        return "env";
+    }
+
+    @Override
+    public ValueResolver compile(FunctionCall call) {
+        call.requireArity(1, 2);
+        String name = call.literal(0);
+        String value = environment.apply(name);
+        if (value == null) {
+            if (call.arity() < 2) {
+                throw new IllegalArgumentException("Environment variable " + name + " is not set");
+            }
+            value = call.literal(1);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return context -> bytes;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.injector.function;
+
+import com.example.injector.id.IdGenerator;
+import com.example.injector.id.IdStrategy;
+import com.example.injector.template.ValueResolver;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * One call of a {@link HeaderFunction} in a template, as seen at compile time:
+ * the compiled arguments, which of them are string literals, and the clock and
+ * id generator the injector was configured with.
+ */
+public final class FunctionCall {
+    private final String name;
+    private final List<ValueResolver> arguments;
+    private final List<String> literals;
+    private final LongSupplier clock;
+    private final IdGenerator idGenerator;
+
+    /**
+     * Calls compiled this way draw ids from {@link IdStrategy#RANDOM}.
+     *
+     * @param literals the value of each string literal argument, null for the others
+     */
+    public FunctionCall(String name, List<ValueResolver> arguments, List<String> literals, LongSupplier clock) {
+        this(name, arguments, literals, clock, IdStrategy.RANDOM.create());
+    }
+
+    /**
+     * @param literals the value of each string literal argument, null for the others
+     */
+    public FunctionCall(String name, List<ValueResolver> arguments, List<String> literals, LongSupplier clock,
+                        IdGenerator idGenerator) {
+        this.name = name;
+        this.arguments = arguments;
+        this.literals = literals;
+        this.clock = clock;
+        this.idGenerator = idGenerator;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int arity() {
+        return arguments.size();
+    }
+
+    public ValueResolver argument(int index) {
+        return arguments.get(index);
+    }
+
+    public List<ValueResolver> arguments() {
+        return arguments;
+    }
+
+    public boolean isLiteral(int index) {
+        return literals.get(index) != null;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the argument is not a string literal
+     */
+    public String literal(int index) {
+        if (!isLiteral(index)) {
+            throw new IllegalArgumentException("Argument " + (index + 1) + " of " + name + "() must be a string literal");
+        }
+        return literals.get(index);
+    }
+
+    public LongSupplier clock() {
+        return clock;
+    }
+
+    /**
+     * The generator behind {@code ${uuid()}}.
+     */
+    public IdGenerator idGenerator() {
+        return idGenerator;
+    }
+
+    /**
+     * @throws IllegalArgumentException unless {@code min <= arity() <= max}
+     */
+    public void requireArity(int min, int max) {
+        if (arguments.size() < min || arguments.size() > max) {
+            String expected = min == max ? String.valueOf(min) : max == Integer.MAX_VALUE ? "at least " + min : min + " to " + max;
+            throw new IllegalArgumentException(name + "() takes " + expected + " argument(s), got " + arguments.size());
+        }
+    }
+}
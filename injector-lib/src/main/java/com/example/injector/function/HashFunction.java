@@ -0,0 +1,73 @@
+package com.example.injector.function;
+
+import com.example.injector.template.ValueResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code hash(value[, 'algorithm'])}: lowercase hex digest of the value's UTF-8
+ * bytes, SHA-256 unless another {@link MessageDigest} algorithm is named.
+ * Digests are kept per thread and algorithm, shared by every compiled call, so
+ * reloading the spec does not leave per-resolver digests behind in each thread.
+ */
+final class HashFunction implements HeaderFunction {
+    private static final String DEFAULT_ALGORITHM = "SHA-256";
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    /** Only holds algorithms that {@link MessageDigest#getInstance(String)} accepted. */
+    private static final ConcurrentHashMap<String, ThreadLocal<MessageDigest>> DIGESTS = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "hash";
+    }
+
+    @Override
+    public ValueResolver compile(FunctionCall call) {
+        call.requireArity(1, 2);
+        String algorithm = call.arity() == 2 ? call.literal(1) : DEFAULT_ALGORITHM;
+        try {
+            MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("hash() does not support algorithm " + algorithm, e);
+        }
+        ThreadLocal<MessageDigest> digests = DIGESTS.computeIfAbsent(algorithm, HashFunction::digests);
+        ValueResolver value = call.argument(0);
+        return context -> hex(digests.get().digest(value.resolve(context)));
+    }
+
+    /**
+     * Two hex digits per digest byte, whatever the value.
+     */
+    @Override
+    public int maxBytes(FunctionCall call, int[] argumentBytes) {
+        String algorithm = call.arity() == 2 ? call.literal(1) : DEFAULT_ALGORITHM;
+        try {
+            int length = MessageDigest.getInstance(algorithm).getDigestLength();
+            return length > 0 ? 2 * length : UNBOUNDED;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("hash() does not support algorithm " + algorithm, e);
+        }
+    }
+
+    private static ThreadLocal<MessageDigest> digests(String algorithm) {
+        return ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static byte[] hex(byte[] digest) {
+        byte[] hex = new byte[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = HEX[(digest[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX[digest[i] & 0xF];
+        }
+        return hex;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.injector.function;
+
+import com.example.injector.template.ValueResolver;
+
+/**
+ * A function usable in header templates, e.g. {@code ${hash(message.payload.email)}}.
+ * Calls are compiled once when the spec is loaded. Custom functions are passed
+ * to {@code HeaderInjectorOptions.builder().function(...)} or listed in
+ * {@code META-INF/services/com.example.injector.function.HeaderFunction}.
+ */
+public interface HeaderFunction {
+    /** {@link #maxBytes} of a function whose values have no bounded size. */
+    int UNBOUNDED = -1;
+
+    String name();
+
+    /**
+     * Checks the arguments and returns the resolver evaluated for every record.
+     *
+     * @throws IllegalArgumentException if the arguments don't fit; the spec then fails to load
+     */
+    ValueResolver compile(FunctionCall call);
+
+    /**
+     * Whether equal arguments always give the same value. Calls of deterministic
+     * functions with only literal arguments are evaluated once at load time.
+     */
+    default boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * Whether the function returns an ID drawn from {@link FunctionCall#idGenerator()},
+     * like {@code ${uuid()}}. A header that is exactly one call of such a function
+     * then carries the raw 16 ID bytes on {@code x-header-encoding: binary}
+     * channels, and consumers read it back as an ID.
+     */
+    default boolean returnsId() {
+        return false;
+    }
+
+    /**
+     * Most bytes a call can resolve to, for {@code x-header-budget}. Calls of
+     * deterministic functions with only literal arguments are measured by
+     * evaluating them instead.
+     *
+     * @param argumentBytes the most bytes each argument can resolve to
+     * @return the bound, or {@link #UNBOUNDED} (the default), in which case a channel declaring a budget fails to load
+     */
+    default int maxBytes(FunctionCall call, int[] argumentBytes) {
+        return UNBOUNDED;
+    }
+}
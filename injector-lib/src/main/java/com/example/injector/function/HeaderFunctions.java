@@ -0,0 +1,72 @@
+package com.example.injector.function;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * The functions a template compiler knows, by name. Functions passed in
+ * explicitly win over service-loaded ones, which win over the built-ins.
+ */
+public final class HeaderFunctions {
+    private static final Set<String> RESERVED = Set.of("uuid", "timestamp");
+    private static final HeaderFunctions BUILTINS = new HeaderFunctions(builtinList());
+
+    private final Map<String, HeaderFunction> functions = new LinkedHashMap<>();
+
+    private HeaderFunctions(List<HeaderFunction> functions) {
+        for (HeaderFunction function : functions) {
+            if (RESERVED.contains(function.name())) {
+                throw new IllegalArgumentException("Header function name " + function.name() + "() is reserved");
+            }
+            this.functions.putIfAbsent(function.name(), function);
+        }
+    }
+
+    /**
+     * {@code hash}, {@code lower}, {@code upper}, {@code now}, {@code env}, {@code concat},
+     * {@code messageId}, {@code correlationId} and {@code causationId}.
+     */
+    public static HeaderFunctions builtins() {
+        return BUILTINS;
+    }
+
+    public static HeaderFunctions load(List<HeaderFunction> custom) {
+        List<HeaderFunction> functions = new ArrayList<>(custom);
+        ServiceLoader.load(HeaderFunction.class).forEach(functions::add);
+        if (functions.isEmpty()) {
+            return BUILTINS;
+        }
+        functions.addAll(builtinList());
+        return new HeaderFunctions(functions);
+    }
+
+    /**
+     * @return the function, or null if none has that name
+     */
+    public HeaderFunction get(String name) {
+        return functions.get(name);
+    }
+
+    /**
+     * Whether {@code name} is a built-in function that no custom function replaces.
+     */
+    public boolean isBuiltin(String name) {
+        HeaderFunction function = functions.get(name);
+        HeaderFunction builtin = BUILTINS.functions.get(name);
+        return function != null && builtin != null && function.getClass() == builtin.getClass();
+    }
+
+    public Set<String> names() {
+        return functions.keySet();
+    }
+
+    private static List<HeaderFunction> builtinList() {
+        return List.of(new HashFunction(), new CaseFunction(false), new CaseFunction(true), new NowFunction(),
+                new EnvFunction(System::getenv), new ConcatFunction(), new TraceIdFunction(TraceIdFunction.Kind.MESSAGE),
+                new TraceIdFunction(TraceIdFunction.Kind.CORRELATION), new TraceIdFunction(TraceIdFunction.Kind.CAUSATION));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.injector.function;
+
+import com.example.injector.template.Utf8;
+import com.example.injector.template.ValueResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.function.LongSupplier;
+
+/**
+ * {@code now('epoch')} (the default, milliseconds like {@code ${timestamp()}})
+ * or {@code now('iso')} (ISO-8601 UTC instant), the same instant as
+ * {@code ${timestamp()}} in the message.
+ */
+final class NowFunction implements HeaderFunction {
+    private static final int EPOCH_BYTES = 20;
+    /** E.g. {@code +292278994-08-17T07:12:55.807Z}, the latest instant in epoch milliseconds. */
+    private static final int ISO_BYTES = 30;
+
+    @Override
+    public String name() {
+        return "now";
+    }
+
+    @Override
+    public ValueResolver compile(FunctionCall call) {
+        call.requireArity(0, 1);
+        String format = call.arity() == 1 ? call.literal(0) : "epoch";
+        LongSupplier clock = call.clock();
+        switch (format) {
+            case "epoch":
+                return context -> Utf8.encode(context.timestamp(clock));
+            case "iso":
+                return context -> DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(context.timestamp(clock)))
+                        .getBytes(StandardCharsets.US_ASCII);
+            default:
+                throw new IllegalArgumentException("now() format must be 'epoch' or 'iso', got '" + format + "'");
+        }
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return false;
+    }
+
+    @Override
+    public int maxBytes(FunctionCall call, int[] argumentBytes) {
+        return call.arity() == 1 && call.literal(0).equals("iso") ? ISO_BYTES : EPOCH_BYTES;
+    }
+}
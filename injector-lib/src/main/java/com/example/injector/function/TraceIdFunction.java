@@ -0,0 +1,66 @@
+package com.example.injector.function;
+
+import com.example.injector.id.IdGenerator;
+import com.example.injector.template.MessageGroup;
+import com.example.injector.template.ValueResolver;
+
+/**
+ * {@code messageId()}, {@code correlationId()} and {@code causationId()}, drawn
+ * from the injector's id generator. {@code messageId()} is one id per message,
+ * however often it is referenced. In a {@link MessageGroup} the other two
+ * follow the group's chain. A message sent on its own starts a chain, so all
+ * three are its message id.
+ */
+final class TraceIdFunction implements HeaderFunction {
+    enum Kind {
+        MESSAGE("messageId"),
+        CORRELATION("correlationId"),
+        CAUSATION("causationId");
+
+        private final String functionName;
+
+        Kind(String functionName) {
+            this.functionName = functionName;
+        }
+    }
+
+    private final Kind kind;
+
+    TraceIdFunction(Kind kind) {
+        this.kind = kind;
+    }
+
+    @Override
+    public String name() {
+        return kind.functionName;
+    }
+
+    @Override
+    public ValueResolver compile(FunctionCall call) {
+        call.requireArity(0, 0);
+        IdGenerator ids = call.idGenerator();
+        switch (kind) {
+            case CORRELATION:
+                return context -> context.correlationId(ids);
+            case CAUSATION:
+                return context -> context.causationId(ids);
+            default:
+                return context -> context.messageId(ids);
+        }
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return false;
+    }
+
+    @Override
+    public boolean returnsId() {
+        return true;
+    }
+
+    @Override
+    public int maxBytes(FunctionCall call, int[] argumentBytes) {
+        return IdGenerator.MAX_TEXT_BYTES;
+    }
+}
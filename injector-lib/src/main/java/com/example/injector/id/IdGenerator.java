@@ -0,0 +1,35 @@
+package com.example.injector.id;
+
+/**
+ * Generates the value of {@code ${uuid()}}. Implementations render straight
+ * into a freshly sized byte array that becomes the header value.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+    /** Bytes of the longest text ID, a UUID. */
+    int MAX_TEXT_BYTES = 36;
+    /** Bytes of an ID in binary form. */
+    int BINARY_BYTES = 16;
+
+    byte[] next();
+
+    /**
+     * The same kind of ID as its raw 16 bytes, used by channels with
+     * {@code x-header-encoding: binary}. Generators that have no binary form
+     * fall back to {@link #next()}.
+     */
+    default byte[] nextBinary() {
+        return next();
+    }
+
+    /**
+     * The raw 16 bytes of an ID in the text form {@link #next()} renders, e.g.
+     * a correlation ID passed in by the caller. Generators that have no binary
+     * form return it unchanged.
+     *
+     * @throws IllegalArgumentException if {@code id} is not such an ID
+     */
+    default byte[] toBinary(byte[] id) {
+        return id;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.injector.id;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strategies available for {@code ${uuid()}}.
+ */
+public enum IdStrategy {
+    /** Random v4 UUID from {@link java.util.UUID#randomUUID()}, backed by a shared SecureRandom. */
+    RANDOM,
+    /** Random v4 UUID drawn from {@link java.util.concurrent.ThreadLocalRandom}; never contends. */
+    THREAD_LOCAL_RANDOM,
+    /** Time-ordered v7 UUID (RFC 9562), sorts by creation time for better index locality downstream. */
+    UUID_V7,
+    /** Monotonic 26 character ULID. */
+    ULID;
+
+    /**
+     * Whether the IDs are ULIDs rather than UUIDs.
+     */
+    public boolean isUlid() {
+        return this == ULID;
+    }
+
+    /**
+     * The text this strategy writes for the 16-byte binary ID at {@code bytes[offset]}.
+     */
+    public String text(byte[] bytes, int offset) {
+        long hi = readLong(bytes, offset);
+        long lo = readLong(bytes, offset + 8);
+        return new String(isUlid() ? UuidFormat.ulid(hi, lo) : UuidFormat.uuid(hi, lo), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * The raw 16 bytes of an ID in the text form this strategy writes.
+     *
+     * @throws IllegalArgumentException if {@code text} is not such an ID
+     */
+    public byte[] binary(byte[] text) {
+        return isUlid() ? UuidFormat.ulidToBinary(text) : UuidFormat.uuidToBinary(text);
+    }
+
+    public IdGenerator create() {
+        switch (this) {
+            case THREAD_LOCAL_RANDOM:
+                return new ThreadLocalRandomUuidGenerator();
+            case UUID_V7:
+                return new UuidV7Generator();
+            case ULID:
+                return new UlidGenerator();
+            default:
+                return new SecureRandomUuidGenerator();
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = value << 8 | bytes[i] & 0xFF;
+        }
+        return value;
+    }
+}
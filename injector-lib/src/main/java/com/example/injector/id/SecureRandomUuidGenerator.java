@@ -0,0 +1,23 @@
+package com.example.injector.id;
+
+import java.util.UUID;
+
+final class SecureRandomUuidGenerator implements IdGenerator {
+
+    @Override
+    public byte[] next() {
+        UUID uuid = UUID.randomUUID();
+        return UuidFormat.uuid(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    @Override
+    public byte[] nextBinary() {
+        UUID uuid = UUID.randomUUID();
+        return UuidFormat.binary(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    @Override
+    public byte[] toBinary(byte[] id) {
+        return UuidFormat.uuidToBinary(id);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.injector.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Version 4 UUIDs from {@link ThreadLocalRandom}. Not suitable where the IDs
+ * must be unguessable, but never blocks or contends between producer threads.
+ */
+final class ThreadLocalRandomUuidGenerator implements IdGenerator {
+
+    @Override
+    public byte[] next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return UuidFormat.uuid(msb(random), lsb(random));
+    }
+
+    @Override
+    public byte[] nextBinary() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return UuidFormat.binary(msb(random), lsb(random));
+    }
+
+    @Override
+    public byte[] toBinary(byte[] id) {
+        return UuidFormat.uuidToBinary(id);
+    }
+
+    private static long msb(ThreadLocalRandom random) {
+        return (random.nextLong() & ~0xF000L) | 0x4000L;
+    }
+
+    static long lsb(ThreadLocalRandom random) {
+        return (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.injector.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Monotonic ULIDs: within the same millisecond the 80-bit random part of the
+ * previous ID is incremented, so IDs from one generator are strictly increasing.
+ * State is swapped with a CAS, so callers never block each other.
+ */
+final class UlidGenerator implements IdGenerator {
+    private static final long RANDOM_HI_MASK = 0xFFFFL;
+
+    private final AtomicReference<State> last = new AtomicReference<>(new State(0L, 0L, 0L));
+
+    @Override
+    public byte[] next() {
+        State next = advance();
+        return UuidFormat.ulid(next.hi(), next.randomLo);
+    }
+
+    @Override
+    public byte[] nextBinary() {
+        State next = advance();
+        return UuidFormat.binary(next.hi(), next.randomLo);
+    }
+
+    @Override
+    public byte[] toBinary(byte[] id) {
+        return UuidFormat.ulidToBinary(id);
+    }
+
+    private State advance() {
+        State current;
+        State next;
+        do {
+            current = last.get();
+            long now = System.currentTimeMillis();
+            if (now > current.millis) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                next = new State(now, random.nextLong() & RANDOM_HI_MASK, random.nextLong());
+            } else {
+                next = current.increment();
+            }
+        } while (!last.compareAndSet(current, next));
+        return next;
+    }
+
+    private static final class State {
+        private final long millis;
+        private final long randomHi;
+        private final long randomLo;
+
+        private State(long millis, long randomHi, long randomLo) {
+            this.millis = millis;
+            this.randomHi = randomHi;
+            this.randomLo = randomLo;
+        }
+
+        private long hi() {
+            return (millis << 16) | randomHi;
+        }
+
+        private State increment() {
+            long lo = randomLo + 1;
+            long hi = lo == 0 ? randomHi + 1 : randomHi;
+            if (hi > RANDOM_HI_MASK) {
+                // Random part exhausted within this millisecond: borrow the next one
+                return new State(millis + 1, 0L, 0L);
+            }
+            return new State(millis, hi, lo);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.injector.id;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Renders 128-bit identifiers as ASCII without going through {@link java.util.UUID#toString()},
+ * or as 16 big-endian bytes.
+ */
+final class UuidFormat {
+    static final int UUID_LENGTH = 36;
+    static final int ULID_LENGTH = 26;
+    static final int BINARY_LENGTH = 16;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CROCKFORD_VALUES = crockfordValues();
+
+    private UuidFormat() {
+    }
+
+    static byte[] uuid(long msb, long lsb) {
+        byte[] bytes = new byte[UUID_LENGTH];
+        hex(bytes, 0, msb >>> 32, 8);
+        bytes[8] = '-';
+        hex(bytes, 9, msb >>> 16, 4);
+        bytes[13] = '-';
+        hex(bytes, 14, msb, 4);
+        bytes[18] = '-';
+        hex(bytes, 19, lsb >>> 48, 4);
+        bytes[23] = '-';
+        hex(bytes, 24, lsb, 12);
+        return bytes;
+    }
+
+    /**
+     * Crockford base32, 5 bits per character starting with the top 3 bits of {@code hi}.
+     */
+    static byte[] ulid(long hi, long lo) {
+        byte[] bytes = new byte[ULID_LENGTH];
+        for (int i = 0; i < ULID_LENGTH; i++) {
+            int shift = 125 - 5 * i;
+            long bits = shift >= 64 ? hi >>> (shift - 64)
+                    : shift + 5 > 64 ? (hi << (64 - shift)) | (lo >>> shift)
+                    : lo >>> shift;
+            bytes[i] = CROCKFORD[(int) (bits & 0x1F)];
+        }
+        return bytes;
+    }
+
+    static byte[] binary(long hi, long lo) {
+        byte[] bytes = new byte[BINARY_LENGTH];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (hi >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (lo >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+
+    /**
+     * The 16 bytes of a 36 character UUID in either case.
+     *
+     * @throws IllegalArgumentException for anything else
+     */
+    static byte[] uuidToBinary(byte[] text) {
+        if (text.length != UUID_LENGTH || text[8] != '-' || text[13] != '-' || text[18] != '-' || text[23] != '-') {
+            throw notAn("UUID", text);
+        }
+        long msb = parseHex(text, 0, 8) << 32 | parseHex(text, 9, 4) << 16 | parseHex(text, 14, 4);
+        long lsb = parseHex(text, 19, 4) << 48 | parseHex(text, 24, 12);
+        return binary(msb, lsb);
+    }
+
+    /**
+     * The 16 bytes of a 26 character ULID in either case, the inverse of {@link #ulid(long, long)}.
+     *
+     * @throws IllegalArgumentException for anything else
+     */
+    static byte[] ulidToBinary(byte[] text) {
+        if (text.length != ULID_LENGTH) {
+            throw notAn("ULID", text);
+        }
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < ULID_LENGTH; i++) {
+            int value = text[i] < 0 ? -1 : CROCKFORD_VALUES[text[i]];
+            // The first character carries only the top 3 of the 130 bits
+            if (value < 0 || i == 0 && value > 7) {
+                throw notAn("ULID", text);
+            }
+            hi = hi << 5 | lo >>> 59;
+            lo = lo << 5 | value;
+        }
+        return binary(hi, lo);
+    }
+
+    private static long parseHex(byte[] text, int offset, int digits) {
+        long value = 0;
+        for (int i = offset; i < offset + digits; i++) {
+            int digit = Character.digit(text[i], 16);
+            if (digit < 0) {
+                throw notAn("UUID", text);
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException notAn(String kind, byte[] text) {
+        return new IllegalArgumentException("Not a " + kind + ": " + new String(text, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] crockfordValues() {
+        byte[] values = new byte[128];
+        Arrays.fill(values, (byte) -1);
+        for (int i = 0; i < CROCKFORD.length; i++) {
+            values[CROCKFORD[i]] = (byte) i;
+            values[Character.toLowerCase(CROCKFORD[i])] = (byte) i;
+        }
+        return values;
+    }
+
+    private static void hex(byte[] target, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            target[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.injector.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Version 7 UUIDs: 48-bit Unix millisecond timestamp followed by random bits,
+ * so IDs sort by creation time.
+ */
+final class UuidV7Generator implements IdGenerator {
+
+    @Override
+    public byte[] next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return UuidFormat.uuid(msb(random), ThreadLocalRandomUuidGenerator.lsb(random));
+    }
+
+    @Override
+    public byte[] nextBinary() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return UuidFormat.binary(msb(random), ThreadLocalRandomUuidGenerator.lsb(random));
+    }
+
+    @Override
+    public byte[] toBinary(byte[] id) {
+        return UuidFormat.uuidToBinary(id);
+    }
+
+    private static long msb(ThreadLocalRandom random) {
+        return (System.currentTimeMillis() << 16) | 0x7000L | (random.nextInt() & 0x0FFFL);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.injector.kafka;
+
+import com.example.injector.service.HeaderInjector;
+import com.example.injector.service.HeaderInjectorOptions;
+import com.example.injector.validation.PayloadValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Kafka {@link ProducerInterceptor} that injects the spec-driven headers into
+ * every outgoing record inside the producer's own {@code send} path. Register it
+ * with {@code interceptor.classes} and either point {@link #SPEC_LOCATION_CONFIG}
+ * at the AsyncAPI spec ({@code classpath:} prefix or file path) or pass a shared
+ * {@link HeaderInjector} under {@link #INJECTOR_CONFIG}.
+ *
+ * <p>With {@link #KEY_ASSIGN_CONFIG} set to {@code true}, records sent without a
+ * key get the channel's {@code x-key} (or {@code aggregateId} header) as key, as
+ * a String or, with a {@link ByteArraySerializer} key serializer, as bytes.
+ *
+ * <p>Kafka catches and logs exceptions thrown from {@code onSend} and sends the
+ * record anyway, so the interceptor cannot stop a send. A payload that fails
+ * validation ({@link PayloadValidationException}) or whose headers can't be
+ * resolved is logged with its topic and still sent, without headers or with
+ * only some of them. Validate in the application when invalid records must
+ * not be published.
+ */
+@Slf4j
+public class HeaderInjectingProducerInterceptor<K, V> implements ProducerInterceptor<K, V> {
+    public static final String SPEC_LOCATION_CONFIG = "header.injector.spec.location";
+    public static final String INJECTOR_CONFIG = "header.injector.instance";
+    public static final String KEY_ASSIGN_CONFIG = "header.injector.key.assign";
+    /**
+     * Optional file caching the compiled spec across restarts, see {@code SpecSnapshot}.
+     */
+    public static final String SNAPSHOT_CONFIG = "header.injector.spec.snapshot";
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private HeaderInjector headerInjector;
+    private boolean assignKey;
+    private boolean byteArrayKeys;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        this.assignKey = Boolean.parseBoolean(String.valueOf(configs.get(KEY_ASSIGN_CONFIG)));
+        Object keySerializer = configs.get(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG);
+        this.byteArrayKeys = keySerializer == ByteArraySerializer.class
+                || ByteArraySerializer.class.getName().equals(keySerializer);
+        Object instance = configs.get(INJECTOR_CONFIG);
+        if (instance instanceof HeaderInjector) {
+            this.headerInjector = (HeaderInjector) instance;
+            return;
+        }
+        Object location = configs.get(SPEC_LOCATION_CONFIG);
+        if (location == null) {
+            throw new ConfigException("Either " + SPEC_LOCATION_CONFIG + " or " + INJECTOR_CONFIG + " must be set");
+        }
+        try (InputStream inputStream = open(location.toString())) {
+            Object snapshot = configs.get(SNAPSHOT_CONFIG);
+            this.headerInjector = new HeaderInjector(inputStream, HeaderInjectorOptions.builder()
+                    .specSnapshot(snapshot == null ? null : Path.of(snapshot.toString()))
+                    .build());
+        } catch (IOException e) {
+            throw new KafkaException("Failed to load AsyncAPI spec from " + location, e);
+        }
+    }
+
+    @Override
+    public ProducerRecord<K, V> onSend(ProducerRecord<K, V> record) {
+        try {
+            return inject(record);
+        } catch (PayloadValidationException e) {
+            log.warn("Sending record for topic {} without injected headers: {}", record.topic(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Sending record for topic {} with incomplete headers, injection failed", record.topic(), e);
+        }
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<K, V> inject(ProducerRecord<K, V> record) {
+        if (!assignKey || record.key() != null) {
+            return headerInjector.injectHeaders(record);
+        }
+        byte[] key = headerInjector.injectHeadersAndKey(record.topic(), record.headers(), record.value());
+        if (key == null) {
+            return record;
+        }
+        K typedKey = (K) (byteArrayKeys ? key : new String(key, StandardCharsets.UTF_8));
+        return new ProducerRecord<>(record.topic(), record.partition(), record.timestamp(), typedKey,
+                record.value(), record.headers());
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static InputStream open(String location) throws IOException {
+        if (location.startsWith(CLASSPATH_PREFIX)) {
+            String resource = location.substring(CLASSPATH_PREFIX.length()).replaceFirst("^/", "");
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader == null) {
+                classLoader = HeaderInjectingProducerInterceptor.class.getClassLoader();
+            }
+            InputStream inputStream = classLoader.getResourceAsStream(resource);
+            if (inputStream == null) {
+                throw new IOException("Classpath resource not found: " + resource);
+            }
+            return inputStream;
+        }
+        return Files.newInputStream(Path.of(location));
+    }
+}
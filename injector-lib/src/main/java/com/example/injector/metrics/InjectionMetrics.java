@@ -0,0 +1,33 @@
+package com.example.injector.metrics;
+
+/**
+ * Instrumentation hooks called by {@link com.example.injector.service.HeaderInjector}.
+ * The default {@link #NOOP} reports {@link #enabled()} as false, in which case the
+ * injector does not even read the clock.
+ */
+public interface InjectionMetrics {
+    InjectionMetrics NOOP = new InjectionMetrics() {
+    };
+
+    default boolean enabled() {
+        return false;
+    }
+
+    /**
+     * @param headerBytes key and value bytes of the injected headers
+     */
+    default void recordInjection(String topic, long durationNanos, int headerBytes) {
+    }
+
+    default void recordResolutionFailure(String topic) {
+    }
+
+    default void recordMissingConfig(String topic) {
+    }
+
+    /**
+     * A payload was rejected by its channel's message schema.
+     */
+    default void recordValidationFailure(String topic) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.injector.metrics;
+
+import com.example.injector.dedup.HeaderCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer-backed {@link InjectionMetrics}, tagged by topic. Micrometer is an
+ * optional dependency of injector-lib; this class is only loaded when used.
+ * Meters are resolved once per topic and cached, so recording is a map lookup
+ * plus the meter update. Records for topics without header configuration are
+ * counted under {@code topic=unconfigured}, and past {@value #MAX_TOPICS}
+ * topics, e.g. from a channel pattern matching ever new topics, the rest share
+ * {@code topic=other}, so neither the cache nor the registry grows without bound.
+ */
+public class MicrometerInjectionMetrics implements InjectionMetrics {
+    public static final String INJECTION_TIMER = "header.injector.injection";
+    public static final String HEADER_BYTES = "header.injector.header.bytes";
+    public static final String RESOLUTION_FAILURES = "header.injector.resolution.failures";
+    public static final String MISSING_CONFIG = "header.injector.missing.config";
+    public static final String VALIDATION_FAILURES = "header.injector.validation.failures";
+    public static final String DEDUP_HITS = "header.injector.dedup.hits";
+    public static final String DEDUP_MISSES = "header.injector.dedup.misses";
+    public static final String DEDUP_EVICTIONS = "header.injector.dedup.evictions";
+    public static final String DEDUP_SIZE = "header.injector.dedup.size";
+    public static final String UNCONFIGURED_TOPIC = "unconfigured";
+    public static final String OTHER_TOPICS = "other";
+    static final int MAX_TOPICS = 1_000;
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, TopicMeters> meters = new ConcurrentHashMap<>();
+    private final Counter missingConfig;
+    private volatile TopicMeters otherTopics;
+
+    public MicrometerInjectionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.missingConfig = Counter.builder(MISSING_CONFIG)
+                .description("Records sent to topics without header configuration")
+                .tag("topic", UNCONFIGURED_TOPIC)
+                .register(registry);
+    }
+
+    /**
+     * Exposes a {@link HeaderCache}'s hit, miss and eviction counts and its size.
+     */
+    public static void monitor(MeterRegistry registry, HeaderCache cache) {
+        FunctionCounter.builder(DEDUP_HITS, cache, c -> c.stats().getHits()).register(registry);
+        FunctionCounter.builder(DEDUP_MISSES, cache, c -> c.stats().getMisses()).register(registry);
+        FunctionCounter.builder(DEDUP_EVICTIONS, cache, c -> c.stats().getEvictions()).register(registry);
+        Gauge.builder(DEDUP_SIZE, cache, HeaderCache::size).register(registry);
+    }
+
+    @Override
+    public boolean enabled() {
+        return true;
+    }
+
+    @Override
+    public void recordInjection(String topic, long durationNanos, int headerBytes) {
+        TopicMeters topicMeters = meters(topic);
+        topicMeters.injection.record(durationNanos, TimeUnit.NANOSECONDS);
+        topicMeters.headerBytes.record(headerBytes);
+    }
+
+    @Override
+    public void recordResolutionFailure(String topic) {
+        meters(topic).resolutionFailures.increment();
+    }
+
+    @Override
+    public void recordMissingConfig(String topic) {
+        missingConfig.increment();
+    }
+
+    @Override
+    public void recordValidationFailure(String topic) {
+        meters(topic).validationFailures.increment();
+    }
+
+    private TopicMeters meters(String topic) {
+        TopicMeters topicMeters = meters.get(topic);
+        if (topicMeters != null) {
+            return topicMeters;
+        }
+        if (meters.size() >= MAX_TOPICS) {
+            return otherTopics();
+        }
+        return meters.computeIfAbsent(topic, TopicMeters::new);
+    }
+
+    private TopicMeters otherTopics() {
+        TopicMeters topicMeters = otherTopics;
+        if (topicMeters == null) {
+            // racing threads register the same meters, Micrometer hands back the existing ones
+            topicMeters = new TopicMeters(OTHER_TOPICS);
+            otherTopics = topicMeters;
+        }
+        return topicMeters;
+    }
+
+    private final class TopicMeters {
+        private final Timer injection;
+        private final DistributionSummary headerBytes;
+        private final Counter resolutionFailures;
+        private final Counter validationFailures;
+
+        private TopicMeters(String topic) {
+            this.injection = Timer.builder(INJECTION_TIMER)
+                    .description("Time spent resolving and adding headers to a record")
+                    .tag("topic", topic)
+                    .register(registry);
+            this.headerBytes = DistributionSummary.builder(HEADER_BYTES)
+                    .description("Key and value bytes of the headers injected into a record")
+                    .baseUnit("bytes")
+                    .publishPercentileHistogram()
+                    .tag("topic", topic)
+                    .register(registry);
+            this.resolutionFailures = Counter.builder(RESOLUTION_FAILURES)
+                    .description("Records whose headers could not be resolved")
+                    .tag("topic", topic)
+                    .register(registry);
+            this.validationFailures = Counter.builder(VALIDATION_FAILURES)
+                    .description("Records rejected because their payload does not match the message schema")
+                    .tag("topic", topic)
+                    .register(registry);
+        }
+    }
+}
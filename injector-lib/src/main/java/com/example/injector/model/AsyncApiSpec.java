@@ -9,6 +9,7 @@ import java.util.Map;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class AsyncApiSpec {
     private String asyncapi;
+    private String defaultContentType;
     private Info info;
     private Map<String, Channel> channels;
     private Components components;
@@ -14,8 +14,50 @@ public class Channel {
     
     @JsonProperty("x-headers")
     private Map<String, String> xHeaders;
+
+    @JsonProperty("x-key")
+    private String xKey;
+
+    @JsonProperty("x-dedup-key")
+    private String xDedupKey;
+
+    @JsonProperty("x-header-encoding")
+    private String xHeaderEncoding;
+
+    @JsonProperty("x-header-packed")
+    private Boolean xHeaderPacked;
+
+    @JsonProperty("x-header-budget")
+    private Integer xHeaderBudget;
+
+    @JsonProperty("x-producer")
+    private Map<String, String> xProducer;
     
     public Map<String, String> getXHeaders() {
         return xHeaders;
     }
+
+    public String getXKey() {
+        return xKey;
+    }
+
+    public String getXDedupKey() {
+        return xDedupKey;
+    }
+
+    public String getXHeaderEncoding() {
+        return xHeaderEncoding;
+    }
+
+    public Boolean getXHeaderPacked() {
+        return xHeaderPacked;
+    }
+
+    public Integer getXHeaderBudget() {
+        return xHeaderBudget;
+    }
+
+    public Map<String, String> getXProducer() {
+        return xProducer;
+    }
 }
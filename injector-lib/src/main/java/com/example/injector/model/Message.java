@@ -1,11 +1,12 @@
 package com.example.injector.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Message {
-    private String $ref;
+    @JsonProperty("$ref")
+    private String ref;
 }
-
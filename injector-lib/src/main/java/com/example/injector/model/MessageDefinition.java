@@ -6,6 +6,7 @@ import lombok.Data;
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class MessageDefinition {
+    private String contentType;
     private Payload payload;
 }
 
@@ -2,6 +2,7 @@ package com.example.injector.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -9,5 +10,6 @@ import java.util.Map;
 public class Payload {
     private String type;
     private Map<String, Property> properties;
+    private List<String> required;
 }
 
@@ -3,9 +3,16 @@ package com.example.injector.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
+import java.util.List;
+import java.util.Map;
+
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Property {
     private String type;
+    private String format;
+    private Integer maxLength;
+    private Map<String, Property> properties;
+    private List<String> required;
 }
 
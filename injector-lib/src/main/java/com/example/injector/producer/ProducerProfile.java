@@ -0,0 +1,128 @@
+package com.example.injector.producer;
+
+import lombok.EqualsAndHashCode;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Producer settings a channel asks for in its {@code x-producer} block, such as
+ * {@code linger.ms: 50} and {@code compression.type: zstd} for a high-volume
+ * stream. Settings are normalized, so channels asking for the same thing get
+ * equal profiles and can share one producer.
+ */
+@EqualsAndHashCode
+public final class ProducerProfile {
+    /**
+     * Whatever the producer is configured with; used for channels without {@code x-producer}.
+     */
+    public static final ProducerProfile DEFAULT = new ProducerProfile(new TreeMap<>());
+
+    public static final String LINGER_MS = "linger.ms";
+    public static final String BATCH_SIZE = "batch.size";
+    public static final String COMPRESSION_TYPE = "compression.type";
+    public static final String ACKS = "acks";
+    public static final String ENABLE_IDEMPOTENCE = "enable.idempotence";
+
+    private static final List<String> SETTINGS = List.of(LINGER_MS, BATCH_SIZE, COMPRESSION_TYPE, ACKS, ENABLE_IDEMPOTENCE);
+    private static final List<String> COMPRESSION_TYPES = List.of("none", "gzip", "snappy", "lz4", "zstd");
+
+    private final SortedMap<String, String> settings;
+
+    private ProducerProfile(SortedMap<String, String> settings) {
+        this.settings = Collections.unmodifiableSortedMap(settings);
+    }
+
+    /**
+     * @param xProducer the channel's {@code x-producer} block, may be null
+     * @throws IllegalArgumentException for settings other than {@code linger.ms},
+     *                                  {@code batch.size}, {@code compression.type}, {@code acks} and
+     *                                  {@code enable.idempotence}, invalid values, or idempotence
+     *                                  without {@code acks: all}
+     */
+    public static ProducerProfile of(Map<String, String> xProducer) {
+        if (xProducer == null || xProducer.isEmpty()) {
+            return DEFAULT;
+        }
+        SortedMap<String, String> settings = new TreeMap<>();
+        xProducer.forEach((name, value) -> {
+            if (!SETTINGS.contains(name)) {
+                throw new IllegalArgumentException("Unsupported x-producer setting " + name + ", supported: " + SETTINGS);
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("x-producer " + name + " has no value");
+            }
+            settings.put(name, normalize(name, value.trim()));
+        });
+        if ("true".equals(settings.get(ENABLE_IDEMPOTENCE)) && settings.containsKey(ACKS) && !"all".equals(settings.get(ACKS))) {
+            throw new IllegalArgumentException("x-producer enable.idempotence requires acks: all, got " + settings.get(ACKS));
+        }
+        return new ProducerProfile(settings);
+    }
+
+    private static String normalize(String name, String value) {
+        switch (name) {
+            case LINGER_MS:
+            case BATCH_SIZE:
+                int number;
+                try {
+                    number = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    number = -1;
+                }
+                if (number >= 0) {
+                    return Integer.toString(number);
+                }
+                throw new IllegalArgumentException("x-producer " + name + " must be a non-negative integer: " + value);
+            case COMPRESSION_TYPE:
+                String compression = value.toLowerCase(Locale.ROOT);
+                if (!COMPRESSION_TYPES.contains(compression)) {
+                    throw new IllegalArgumentException("x-producer compression.type must be one of " + COMPRESSION_TYPES + ": " + value);
+                }
+                return compression;
+            case ACKS:
+                String acks = value.toLowerCase(Locale.ROOT);
+                if (acks.equals("all") || acks.equals("-1")) {
+                    return "all";
+                }
+                if (acks.equals("0") || acks.equals("1")) {
+                    return acks;
+                }
+                throw new IllegalArgumentException("x-producer acks must be 0, 1 or all: " + value);
+            default:
+                String flag = value.toLowerCase(Locale.ROOT);
+                if (!flag.equals("true") && !flag.equals("false")) {
+                    throw new IllegalArgumentException("x-producer " + name + " must be true or false: " + value);
+                }
+                return flag;
+        }
+    }
+
+    public boolean isDefault() {
+        return settings.isEmpty();
+    }
+
+    /**
+     * The normalized settings, sorted by name.
+     */
+    public SortedMap<String, String> settings() {
+        return settings;
+    }
+
+    /**
+     * Overrides to apply on top of the base producer configuration.
+     */
+    public Map<String, Object> toConfig() {
+        return new LinkedHashMap<>(settings);
+    }
+
+    @Override
+    public String toString() {
+        return isDefault() ? "default" : settings.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.injector.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves a topic to the value registered for its channel. Plain channel names
+ * go into a hash map; parameterized names such as {@code orders.{region}.created}
+ * go into a trie over the dot-separated segments, where a {@code {param}} segment
+ * matches any single segment and literal segments win over parameters. Topics
+ * that needed the trie, including misses, are memoized so repeated lookups stay
+ * a single hash probe regardless of how many channels are registered. A
+ * parameter must be a whole segment; {@code orders-{region}} is rejected.
+ */
+public final class TopicRouter<T> {
+    static final int MAX_CACHED_TOPICS = 10_000;
+    private static final Object NO_MATCH = new Object();
+
+    private final Map<String, T> exact;
+    private final Node<T> patterns = new Node<>();
+    private final boolean hasPatterns;
+    private final ConcurrentHashMap<String, Object> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @throws IllegalArgumentException if a parameter is not a whole segment or
+     *                                  two parameterized channels overlap
+     */
+    public TopicRouter(Map<String, T> channels) {
+        Map<String, T> exactChannels = new HashMap<>();
+        boolean anyPattern = false;
+        for (Map.Entry<String, T> entry : channels.entrySet()) {
+            String channel = entry.getKey();
+            if (isPattern(channel)) {
+                addPattern(channel, entry.getValue());
+                anyPattern = true;
+            } else {
+                exactChannels.put(channel, entry.getValue());
+            }
+        }
+        this.exact = exactChannels;
+        this.hasPatterns = anyPattern;
+    }
+
+    public static boolean isPattern(String channel) {
+        return channel.indexOf('{') >= 0;
+    }
+
+    /**
+     * @return the value for the channel matching {@code topic}, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public T route(String topic) {
+        T value = exact.get(topic);
+        if (value != null || !hasPatterns) {
+            return value;
+        }
+        Object cached = cache.get(topic);
+        if (cached == null) {
+            T matched = match(patterns, topic.split("\\.", -1), 0);
+            cached = matched != null ? matched : NO_MATCH;
+            if (cache.size() < MAX_CACHED_TOPICS) {
+                cache.put(topic, cached);
+            }
+        }
+        return cached == NO_MATCH ? null : (T) cached;
+    }
+
+    int cachedTopics() {
+        return cache.size();
+    }
+
+    private void addPattern(String channel, T value) {
+        Node<T> node = patterns;
+        for (String segment : channel.split("\\.", -1)) {
+            if (isParameter(segment)) {
+                if (node.parameter == null) {
+                    node.parameter = new Node<>();
+                }
+                node = node.parameter;
+            } else if (isPattern(segment)) {
+                throw new IllegalArgumentException("Channel " + channel
+                        + ": a parameter must be a whole dot-separated segment such as {region}, got " + segment);
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node<>());
+            }
+        }
+        if (node.value != null) {
+            throw new IllegalArgumentException("Channel " + channel + " overlaps an existing parameterized channel");
+        }
+        node.value = value;
+    }
+
+    private static boolean isParameter(String segment) {
+        return segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}")
+                && segment.indexOf('{', 1) < 0 && segment.indexOf('}') == segment.length() - 1;
+    }
+
+    private static <T> T match(Node<T> node, String[] segments, int index) {
+        if (index == segments.length) {
+            return node.value;
+        }
+        Node<T> literal = node.literals.get(segments[index]);
+        if (literal != null) {
+            T value = match(literal, segments, index + 1);
+            if (value != null) {
+                return value;
+            }
+        }
+        return node.parameter != null && !segments[index].isEmpty()
+                ? match(node.parameter, segments, index + 1)
+                : null;
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> literals = new HashMap<>();
+        private Node<T> parameter;
+        private T value;
+    }
+}
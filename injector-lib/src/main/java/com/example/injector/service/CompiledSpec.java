@@ -0,0 +1,63 @@
+package com.example.injector.service;
+
+import com.example.injector.producer.ProducerProfile;
+import com.example.injector.routing.TopicRouter;
+import com.example.injector.template.ChannelInjector;
+
+import java.lang.ref.SoftReference;
+
+/**
+ * Immutable pairing of the loaded specs with their compiled channel injectors. A
+ * {@link HeaderInjector} swaps whole instances on reload, so readers always see
+ * a consistent version without locking.
+ */
+final class CompiledSpec {
+    private final SpecRegistry registry;
+    private final byte[] compactRegistry;
+    private final TopicRouter<ChannelInjector> router;
+    private final TopicRouter<ProducerProfile> profiles;
+    private volatile SoftReference<SpecRegistry> decoded = new SoftReference<>(null);
+
+    CompiledSpec(SpecRegistry registry, TopicRouter<ChannelInjector> router, TopicRouter<ProducerProfile> profiles) {
+        this(registry, null, router, profiles);
+    }
+
+    private CompiledSpec(SpecRegistry registry, byte[] compactRegistry, TopicRouter<ChannelInjector> router,
+                         TopicRouter<ProducerProfile> profiles) {
+        this.registry = registry;
+        this.compactRegistry = compactRegistry;
+        this.router = router;
+        this.profiles = profiles;
+    }
+
+    /**
+     * The same spec with the registry's model objects replaced by their
+     * {@link SpecSnapshot} encoding, one flat array instead of a graph of maps
+     * and strings. Injection never needs them; {@link #registry()} decodes them
+     * on demand into the regrouped form a snapshot start yields.
+     */
+    CompiledSpec compact() {
+        return compactRegistry != null ? this : new CompiledSpec(null, SpecSnapshot.encode(registry), router, profiles);
+    }
+
+    SpecRegistry registry() {
+        if (registry != null) {
+            return registry;
+        }
+        SpecRegistry cached = decoded.get();
+        if (cached == null) {
+            cached = SpecRegistry.merge(SpecSnapshot.decode(compactRegistry));
+            decoded = new SoftReference<>(cached);
+        }
+        return cached;
+    }
+
+    ChannelInjector injector(String topic) {
+        return router.route(topic);
+    }
+
+    ProducerProfile producerProfile(String topic) {
+        ProducerProfile profile = profiles.route(topic);
+        return profile == null ? ProducerProfile.DEFAULT : profile;
+    }
+}
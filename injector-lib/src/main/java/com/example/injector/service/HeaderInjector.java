@@ -1,61 +1,644 @@
 package com.example.injector.service;
 
+import com.example.injector.clock.TimestampMode;
+import com.example.injector.codec.HeaderBudget;
+import com.example.injector.codegen.GeneratedInjectors;
+import com.example.injector.codegen.InjectorGenerator;
+import com.example.injector.dedup.CachedHeaders;
+import com.example.injector.dedup.Fingerprint;
+import com.example.injector.dedup.HeaderCache;
+import com.example.injector.extract.JsonPayloadExtractorProvider;
+import com.example.injector.extract.PayloadExtractor;
+import com.example.injector.extract.PayloadExtractorProvider;
+import com.example.injector.function.HeaderFunction;
+import com.example.injector.function.HeaderFunctions;
 import com.example.injector.model.AsyncApiSpec;
+import com.example.injector.model.Channel;
+import com.example.injector.model.MessageDefinition;
+import com.example.injector.id.IdGenerator;
+import com.example.injector.id.IdStrategy;
+import com.example.injector.metrics.InjectionMetrics;
+import com.example.injector.producer.ProducerProfile;
+import com.example.injector.routing.TopicRouter;
+import com.example.injector.template.ChannelInjector;
+import com.example.injector.template.ChannelPlan;
+import com.example.injector.template.MessageContext;
+import com.example.injector.template.MessageGroup;
+import com.example.injector.template.TemplateCompiler;
+import com.example.injector.validation.PayloadSchema;
+import com.example.injector.validation.PayloadValidationException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.common.header.Header;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.Headers;
-import org.apache.kafka.common.header.internals.RecordHeader;
 
 import java.io.InputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 @Slf4j
 public class HeaderInjector {
-    private final AsyncApiSpec spec;
-    private final ObjectMapper objectMapper;
+    private static final int MAX_WARNED_TOPICS = 1_000;
+
+    private final IdGenerator idGenerator;
+    private final LongSupplier clock;
+    private final InjectionMetrics metrics;
+    private final List<PayloadExtractorProvider> payloadFormats;
+    private final HeaderFunctions functions;
+    private final boolean inlinedFunctionsBuiltin;
+    private final HeaderCache headerCache;
+    private final boolean validatePayloads;
+    private final Path snapshotFile;
+    private final SpecPool specPool;
+    private final CompileSettings compileSettings;
+    private final Map<String, GeneratedInjectors> generated = new LinkedHashMap<>();
+    private final AtomicReference<CompiledSpec> current = new AtomicReference<>();
+    /** Serializes reloads, so a slow one cannot publish over a newer one. Injection never takes it. */
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Set<String> warnedTopics = ConcurrentHashMap.newKeySet();
 
     public HeaderInjector(InputStream specInputStream) throws IOException {
-        this.objectMapper = new ObjectMapper(new YAMLFactory());
-        this.spec = objectMapper.readValue(specInputStream, AsyncApiSpec.class);
+        this(specInputStream, HeaderInjectorOptions.defaults());
     }
 
-    public void injectHeaders(String topic, Headers headers, Map<String, Object> messagePayload) {
-        var channel = spec.getChannels().get(topic);
-        if (channel == null || channel.getXHeaders() == null) {
-            log.warn("No header configuration found for topic: {}", topic);
-            return;
+    public HeaderInjector(InputStream specInputStream, HeaderInjectorOptions options) throws IOException {
+        this(options);
+        current.set(load(readSources(List.of(specInputStream))));
+    }
+
+    /**
+     * Serves the channels of all given specs as one merged set.
+     */
+    public HeaderInjector(List<InputStream> specInputStreams, HeaderInjectorOptions options) throws IOException {
+        this(options);
+        current.set(load(readSources(specInputStreams)));
+    }
+
+    /**
+     * @param specLocation a spec file, or a directory whose {@code .yaml}/{@code .yml} files are all loaded
+     */
+    public HeaderInjector(Path specLocation, HeaderInjectorOptions options) throws IOException {
+        this(options);
+        current.set(load(readSources(specLocation)));
+    }
+
+    private HeaderInjector(HeaderInjectorOptions options) {
+        this.specPool = options.getSpecPool();
+        this.idGenerator = specPool == null ? options.getIdStrategy().create() : specPool.idGenerator(options.getIdStrategy());
+        this.clock = options.getTimestampMode().clock();
+        this.metrics = options.getMetrics();
+        List<PayloadExtractorProvider> formats = new ArrayList<>(options.getPayloadExtractors());
+        ServiceLoader.load(PayloadExtractorProvider.class).forEach(formats::add);
+        formats.add(new JsonPayloadExtractorProvider());
+        this.payloadFormats = List.copyOf(formats);
+        this.functions = HeaderFunctions.load(options.getFunctions());
+        this.inlinedFunctionsBuiltin = InjectorGenerator.INLINED_FUNCTIONS.stream().allMatch(functions::isBuiltin);
+        this.headerCache = options.getHeaderCache();
+        this.validatePayloads = options.isValidatePayloads();
+        this.snapshotFile = options.getSpecSnapshot();
+        this.compileSettings = new CompileSettings(options.getIdStrategy(), options.getTimestampMode(),
+                options.getFunctions(), options.getPayloadExtractors(), options.isUseGeneratedInjectors(),
+                validatePayloads);
+        if (options.isUseGeneratedInjectors()) {
+            ServiceLoader.load(GeneratedInjectors.class).forEach(provider ->
+                    provider.channels().keySet().forEach(channel -> generated.putIfAbsent(channel, provider)));
         }
+    }
 
-        Map<String, String> headerValues = new HashMap<>();
-        channel.getXHeaders().forEach((key, value) -> {
-            String resolvedValue = resolveHeaderValue(value, messagePayload);
-            headerValues.put(key, resolvedValue);
+    /**
+     * Serves exactly the channels compiled in by {@code InjectorGenerator},
+     * without reading any YAML. The spec can still be replaced later with
+     * {@link #reload(InputStream)}.
+     *
+     * @throws IOException if no generated injectors are on the classpath
+     */
+    public static HeaderInjector fromGenerated(HeaderInjectorOptions options) throws IOException {
+        HeaderInjector injector = new HeaderInjector(options);
+        if (injector.generated.isEmpty()) {
+            throw new IOException("No generated header injectors found on the classpath");
+        }
+        Map<String, Channel> channels = new LinkedHashMap<>();
+        injector.generated.forEach((name, provider) -> {
+            Channel compiledIn = provider.channels().get(name);
+            Channel channel = new Channel();
+            channel.setXHeaders(new LinkedHashMap<>(compiledIn.getXHeaders()));
+            channel.setXKey(compiledIn.getXKey());
+            channel.setXDedupKey(compiledIn.getXDedupKey());
+            channel.setXProducer(compiledIn.getXProducer());
+            channels.put(name, channel);
         });
+        AsyncApiSpec spec = new AsyncApiSpec();
+        spec.setChannels(channels);
+        injector.current.set(injector.compile(List.of(spec)));
+        return injector;
+    }
 
-        headerValues.forEach((key, value) -> {
-            Header header = new RecordHeader(key, value.getBytes());
-            headers.add(header);
-        });
+    public SpecRegistry getRegistry() {
+        return current.get().registry();
+    }
+
+    /**
+     * The producer settings the topic's channel asks for in {@code x-producer},
+     * {@link ProducerProfile#DEFAULT} if none or the topic is unknown. Follows
+     * reloads like the header configuration does.
+     */
+    public ProducerProfile producerProfile(String topic) {
+        return current.get().producerProfile(topic);
+    }
+
+    /**
+     * Parses, validates and compiles a new version of the spec off the hot path and
+     * publishes it with a single reference swap. In-flight {@code injectHeaders}
+     * calls finish against the version they started with. Concurrent reloads run
+     * one after the other and the last one wins. If the new spec cannot be loaded
+     * the exception is thrown and the previous version stays active.
+     */
+    public void reload(InputStream specInputStream) throws IOException {
+        reload(List.of(specInputStream));
+    }
+
+    public void reload(List<InputStream> specInputStreams) throws IOException {
+        reloadLock.lock();
+        try {
+            publish(load(readSources(specInputStreams)));
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * The files are read once the reload holds the lock, so the last of several
+     * concurrent reloads publishes what is on disk when it runs.
+     */
+    public void reload(Path specLocation) throws IOException {
+        reloadLock.lock();
+        try {
+            publish(load(readSources(specLocation)));
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads whenever the spec file, or any spec in the directory, changes on
+     * disk, see {@link SpecWatcher}.
+     */
+    public SpecWatcher watch(Path specLocation) throws IOException {
+        return new SpecWatcher(specLocation, () -> reload(specLocation));
+    }
+
+    public void injectHeaders(String topic, Headers headers, Map<String, Object> messagePayload) {
+        inject(topic, headers, messagePayload);
+    }
+
+    /**
+     * Injects headers for a raw JSON payload. Only the fields referenced by the
+     * channel's templates are read; the payload is never bound to a Map or tree.
+     */
+    public void injectHeaders(String topic, Headers headers, String jsonPayload) {
+        inject(topic, headers, jsonPayload);
+    }
+
+    /**
+     * Injects headers for a serialized payload, read with the extractor for the
+     * channel's content type (JSON unless the spec says otherwise).
+     */
+    public void injectHeaders(String topic, Headers headers, byte[] payload) {
+        inject(topic, headers, payload);
+    }
+
+    /**
+     * Reads the buffer's remaining bytes without moving its position.
+     */
+    public void injectHeaders(String topic, Headers headers, ByteBuffer payload) {
+        inject(topic, headers, payload);
+    }
+
+    /**
+     * Injects the spec-driven headers into the record's own headers and returns
+     * the same record, so it can be used inline with {@code producer.send(...)}.
+     * String, byte[] and ByteBuffer values are read according to the channel's
+     * content type, Map values are used as is.
+     */
+    public <K, V> ProducerRecord<K, V> injectHeaders(ProducerRecord<K, V> record) {
+        inject(record.topic(), record.headers(), record.value());
+        return record;
+    }
+
+    /**
+     * Injects the headers like {@link #injectHeaders(ProducerRecord)} and, unless
+     * the record already has a key, returns a copy keyed by the channel's
+     * {@code x-key} (or {@code aggregateId} header). The key is resolved from
+     * the same read of the payload as the headers. Records whose channel
+     * yields no key are returned unchanged.
+     */
+    public <V> ProducerRecord<String, V> injectHeadersAndKey(ProducerRecord<String, V> record) {
+        byte[] key = inject(record.topic(), record.headers(), record.value());
+        if (key == null || record.key() != null) {
+            return record;
+        }
+        return new ProducerRecord<>(record.topic(), record.partition(), record.timestamp(),
+                new String(key, StandardCharsets.UTF_8), record.value(), record.headers());
+    }
+
+    /**
+     * Injects the headers for a Map, String, byte[] or ByteBuffer payload and
+     * returns the channel's record key, or null if it defines none or the key
+     * resolves to an empty value.
+     */
+    public byte[] injectHeadersAndKey(String topic, Headers headers, Object payload) {
+        return inject(topic, headers, payload);
+    }
+
+    /**
+     * Injects the headers of records that are published together, e.g. in one
+     * transaction, in a single pass in list order. All of them get the same
+     * {@code ${timestamp()}}, which also becomes the timestamp of records that
+     * have none. {@code ${correlationId()}} is the same for all of them, and
+     * {@code ${causationId()}} of each is the {@code ${messageId()}} of the one
+     * before, see {@link MessageGroup}. Returns keyed copies like
+     * {@link #injectHeadersAndKey(ProducerRecord)}. The header cache is not
+     * used, since cached headers would break the chain.
+     */
+    public <V> List<ProducerRecord<String, V>> injectGroup(List<ProducerRecord<String, V>> records) {
+        return injectGroup(records, null, null);
+    }
+
+    /**
+     * The given ids must be IDs of the configured {@link IdStrategy} in text
+     * form, like the {@code ${messageId()}} of an earlier message, since
+     * consumers read these headers as IDs and binary channels write their raw bytes.
+     *
+     * @param correlationId the group's correlation id, e.g. taken from the request that caused
+     *                      it, or null to use the first record's message id
+     * @param causationId   the first record's causation id, or null to use the correlation id
+     * @throws IllegalArgumentException if an id is not such an ID
+     */
+    public <V> List<ProducerRecord<String, V>> injectGroup(List<ProducerRecord<String, V>> records,
+                                                           String correlationId, String causationId) {
+        MessageGroup group = new MessageGroup(clock.getAsLong(), id("correlation", correlationId),
+                id("causation", causationId));
+        List<ProducerRecord<String, V>> injected = new ArrayList<>(records.size());
+        for (ProducerRecord<String, V> record : records) {
+            byte[] key = inject(record.topic(), record.headers(), record.value(), group);
+            Long timestamp = record.timestamp() != null ? record.timestamp() : Long.valueOf(group.timestamp());
+            String recordKey = record.key() != null || key == null ? record.key() : new String(key, StandardCharsets.UTF_8);
+            injected.add(new ProducerRecord<>(record.topic(), record.partition(), timestamp, recordKey, record.value(),
+                    record.headers()));
+        }
+        return injected;
+    }
+
+    private byte[] id(String kind, String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] id = value.getBytes(StandardCharsets.UTF_8);
+        try {
+            idGenerator.toBinary(id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("The " + kind + " id must be an ID of the configured id strategy, got "
+                    + value, e);
+        }
+        return id;
+    }
+
+    private byte[] inject(String topic, Headers headers, Object payload) {
+        return inject(topic, headers, payload, null);
+    }
+
+    private byte[] inject(String topic, Headers headers, Object payload, MessageGroup group) {
+        ChannelInjector injector = injectorFor(topic);
+        if (injector == null) {
+            return null;
+        }
+        boolean timed = metrics.enabled();
+        long start = timed ? System.nanoTime() : 0L;
+        MessageContext context;
+        int bytes;
+        try {
+            context = injector.read(payload);
+            context.setGroup(group);
+            Fingerprint fingerprint = headerCache == null || group != null ? null : fingerprint(injector, context, payload);
+            CachedHeaders cached = fingerprint == null ? null : headerCache.get(topic, fingerprint);
+            if (cached != null) {
+                bytes = cached.addTo(headers);
+                context.setKey(cached.key());
+            } else {
+                bytes = injector.inject(headers, context);
+                if (fingerprint != null) {
+                    headerCache.put(topic, fingerprint,
+                            CachedHeaders.capture(headers, injector.headerCount(), context.key(), bytes));
+                }
+            }
+            if (group != null) {
+                group.advance(context, idGenerator);
+            }
+        } catch (IOException e) {
+            metrics.recordResolutionFailure(topic);
+            throw new UncheckedIOException("Payload could not be read for topic " + topic, e);
+        } catch (PayloadValidationException e) {
+            metrics.recordValidationFailure(topic);
+            throw e.forTopic(topic);
+        } catch (RuntimeException e) {
+            metrics.recordResolutionFailure(topic);
+            throw e;
+        }
+        if (timed) {
+            metrics.recordInjection(topic, System.nanoTime() - start, bytes);
+        }
+        byte[] key = context.key();
+        return key == null || key.length == 0 ? null : key;
+    }
+
+    /**
+     * Maps without an {@code x-dedup-key} have no stable serialized form and are
+     * not deduplicated.
+     */
+    private static Fingerprint fingerprint(ChannelInjector injector, MessageContext context, Object payload) {
+        byte[] dedupKey = injector.dedupKey(context);
+        if (dedupKey != null) {
+            return dedupKey.length == 0 ? null : Fingerprint.of(dedupKey, 0, dedupKey.length);
+        }
+        if (payload instanceof String) {
+            return Fingerprint.of((String) payload);
+        } else if (payload instanceof byte[]) {
+            byte[] bytes = (byte[]) payload;
+            return Fingerprint.of(bytes, 0, bytes.length);
+        } else if (payload instanceof ByteBuffer) {
+            return Fingerprint.of((ByteBuffer) payload);
+        }
+        return null;
+    }
+
+    private ChannelInjector injectorFor(String topic) {
+        ChannelInjector injector = current.get().injector(topic);
+        if (injector == null) {
+            metrics.recordMissingConfig(topic);
+            if (warnedTopics.size() < MAX_WARNED_TOPICS && warnedTopics.add(topic)) {
+                log.warn("No header configuration found for topic: {}", topic);
+            }
+        }
+        return injector;
+    }
+
+    private void publish(CompiledSpec next) {
+        current.set(next);
+        log.info("Reloaded {} AsyncAPI spec(s) with {} channels",
+                next.registry().getSpecs().size(), next.registry().getChannels().size());
+    }
+
+    /**
+     * Takes the compiled spec from the pool if another injector already loaded
+     * the same bytes, else compiles it and pools it in compact form.
+     */
+    private CompiledSpec load(List<SpecSource> sources) throws IOException {
+        Fingerprint checksum = snapshotFile == null && specPool == null
+                ? null : SpecSnapshot.checksum(sources.stream().map(SpecSource::getYaml).toList());
+        if (specPool == null) {
+            return load(sources, checksum);
+        }
+        SpecKey key = new SpecKey(checksum, compileSettings);
+        CompiledSpec shared = specPool.spec(key);
+        return shared != null ? shared : specPool.intern(key, load(sources, checksum).compact());
+    }
+
+    /**
+     * Compiles the specs from the snapshot while it matches their bytes, else
+     * parses the YAML and refreshes the snapshot.
+     */
+    private CompiledSpec load(List<SpecSource> sources, Fingerprint checksum) throws IOException {
+        if (snapshotFile == null) {
+            return compile(parse(sources));
+        }
+        List<AsyncApiSpec> snapshot = SpecSnapshot.read(snapshotFile, checksum);
+        if (snapshot != null) {
+            log.info("Loaded the channel configuration from snapshot {}", snapshotFile);
+            return compile(snapshot);
+        }
+        CompiledSpec compiled = compile(parse(sources));
+        try {
+            SpecSnapshot.write(snapshotFile, checksum, compiled.registry());
+        } catch (IOException e) {
+            log.warn("Could not write spec snapshot {}", snapshotFile, e);
+        }
+        return compiled;
     }
 
-    private String resolveHeaderValue(String template, Map<String, Object> payload) {
-        if (template.startsWith("${")) {
-            String expression = template.substring(2, template.length() - 1);
-            if (expression.equals("uuid()")) {
-                return UUID.randomUUID().toString();
-            } else if (expression.equals("timestamp()")) {
-                return String.valueOf(System.currentTimeMillis());
-            } else if (expression.startsWith("message.payload.")) {
-                String field = expression.substring("message.payload.".length());
-                Object value = payload.get(field);
-                return value != null ? value.toString() : "";
+    private static List<AsyncApiSpec> parse(List<SpecSource> sources) throws IOException {
+        List<AsyncApiSpec> specs = new ArrayList<>(sources.size());
+        for (SpecSource source : sources) {
+            try {
+                specs.add(Yaml.MAPPER.readValue(source.getYaml(), AsyncApiSpec.class));
+            } catch (IOException e) {
+                if (source.getName() == null) {
+                    throw e;
+                }
+                throw new IOException("Failed to read AsyncAPI spec " + source.getName(), e);
             }
         }
-        return template;
+        return specs;
+    }
+
+    private static List<SpecSource> readSources(List<InputStream> specInputStreams) throws IOException {
+        List<SpecSource> sources = new ArrayList<>(specInputStreams.size());
+        for (InputStream inputStream : specInputStreams) {
+            sources.add(new SpecSource(null, inputStream.readAllBytes()));
+        }
+        return sources;
+    }
+
+    private static List<SpecSource> readSources(Path specLocation) throws IOException {
+        if (!Files.isDirectory(specLocation)) {
+            return List.of(new SpecSource(specLocation.toString(), Files.readAllBytes(specLocation)));
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(specLocation)) {
+            files = listing.filter(SpecWatcher::isSpecFile).sorted().toList();
+        }
+        List<SpecSource> sources = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try {
+                sources.add(new SpecSource(file.toString(), Files.readAllBytes(file)));
+            } catch (IOException e) {
+                throw new IOException("Failed to read AsyncAPI spec " + file, e);
+            }
+        }
+        return sources;
+    }
+
+    private CompiledSpec compile(List<AsyncApiSpec> specs) throws IOException {
+        SpecRegistry registry;
+        try {
+            registry = SpecRegistry.merge(specs);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        Map<String, ChannelInjector> plans = new HashMap<>();
+        Map<String, ProducerProfile> profiles = new HashMap<>();
+        try {
+            registry.getChannels().forEach((name, channel) -> {
+                if (channel != null && channel.getXProducer() != null) {
+                    try {
+                        profiles.put(name, ProducerProfile.of(channel.getXProducer()));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Channel " + name + ": " + e.getMessage(), e);
+                    }
+                }
+                PayloadSchema schema = channel != null && validatePayloads ? schema(name, registry) : null;
+                if (channel != null && (channel.getXHeaders() != null || schema != null)) {
+                    HeaderBudget.check(name, channel, registry.messageOf(name),
+                            new TemplateCompiler(idGenerator, clock, functions));
+                    plans.put(name, channelInjector(name, channel, registry, schema));
+                }
+            });
+            return new CompiledSpec(registry, new TopicRouter<>(plans), new TopicRouter<>(profiles));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private ChannelInjector channelInjector(String name, Channel channel, SpecRegistry registry, PayloadSchema schema) {
+        String contentType = registry.contentTypeOf(name);
+        ChannelKey key = null;
+        if (specPool != null) {
+            Fingerprint definition = SpecSnapshot.fingerprint(channel, contentType, registry.messageOf(name));
+            key = new ChannelKey(definition, generated.containsKey(name) ? name : null, compileSettings);
+            ChannelInjector shared = specPool.channel(key);
+            if (shared != null) {
+                return shared;
+            }
+        }
+        PayloadExtractorProvider format = payloadFormat(contentType);
+        GeneratedInjectors provider = generated.get(name);
+        ChannelInjector injector;
+        if (provider != null && schema == null && format instanceof JsonPayloadExtractorProvider
+                && inlinedFunctionsBuiltin && sameTemplates(channel, provider, name)) {
+            injector = provider.create(name, idGenerator, clock);
+        } else {
+            injector = ChannelPlan.compile(channel, new TemplateCompiler(idGenerator, clock, functions), format, schema);
+        }
+        return key == null ? injector : specPool.intern(key, injector);
+    }
+
+    /**
+     * The channel's compiled message schema, or null if it has nothing to check.
+     * Generated injectors don't validate, so such channels get a {@link ChannelPlan}.
+     */
+    private static PayloadSchema schema(String name, SpecRegistry registry) {
+        MessageDefinition message = registry.messageOf(name);
+        try {
+            return message == null ? null : PayloadSchema.compile(message.getPayload());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Channel " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Generated code is only trusted while the spec still says the same thing,
+     * header order included. It only writes the default text encoding.
+     */
+    private static boolean sameTemplates(Channel channel, GeneratedInjectors provider, String name) {
+        Channel compiledIn = provider.channels().get(name);
+        return new ArrayList<>(channel.getXHeaders().entrySet()).equals(new ArrayList<>(compiledIn.getXHeaders().entrySet()))
+                && Objects.equals(channel.getXKey(), compiledIn.getXKey())
+                && Objects.equals(channel.getXDedupKey(), compiledIn.getXDedupKey())
+                && channel.getXHeaderEncoding() == null && channel.getXHeaderPacked() == null;
+    }
+
+    private PayloadExtractorProvider payloadFormat(String contentType) {
+        String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        for (PayloadExtractorProvider format : payloadFormats) {
+            if (format.supports(mediaType)) {
+                return format;
+            }
+        }
+        return unsupported(mediaType);
+    }
+
+    /**
+     * Channels in a format nobody can read are fine as long as their templates
+     * don't reference payload fields.
+     */
+    private static PayloadExtractorProvider unsupported(String mediaType) {
+        return new PayloadExtractorProvider() {
+            @Override
+            public boolean supports(String contentType) {
+                return false;
+            }
+
+            @Override
+            public PayloadExtractor create(List<String> fieldPaths) {
+                if (!fieldPaths.isEmpty()) {
+                    throw new IllegalArgumentException("No payload extractor registered for content type " + mediaType
+                            + ", cannot read " + fieldPaths);
+                }
+                return (payload, offset, length, context) -> { };
+            }
+        };
+    }
+
+    @Value
+    private static class SpecSource {
+        String name;
+        byte[] yaml;
+    }
+
+    /**
+     * Everything besides the spec that shapes what {@link #compile(List)} produces.
+     */
+    @Value
+    private static class CompileSettings {
+        IdStrategy idStrategy;
+        TimestampMode timestampMode;
+        List<HeaderFunction> functions;
+        List<PayloadExtractorProvider> payloadExtractors;
+        boolean generatedInjectors;
+        boolean validatePayloads;
+    }
+
+    @Value
+    private static class SpecKey {
+        Fingerprint sources;
+        CompileSettings settings;
+    }
+
+    /**
+     * Generated injectors are picked by channel name, so the name only matters
+     * for channels that have one.
+     */
+    @Value
+    private static class ChannelKey {
+        Fingerprint definition;
+        String generatedName;
+        CompileSettings settings;
+    }
+
+    /**
+     * Holds the YAML mapper so Jackson's YAML support is only loaded when a
+     * spec is actually parsed, not when starting from a snapshot.
+     */
+    private static final class Yaml {
+        static final ObjectMapper MAPPER = new ObjectMapper(new YAMLFactory());
     }
-} 
\ No newline at end of file
+}
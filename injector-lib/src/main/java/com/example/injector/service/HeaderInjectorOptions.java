@@ -0,0 +1,81 @@
+package com.example.injector.service;
+
+import com.example.injector.clock.TimestampMode;
+import com.example.injector.dedup.HeaderCache;
+import com.example.injector.extract.PayloadExtractorProvider;
+import com.example.injector.function.HeaderFunction;
+import com.example.injector.id.IdStrategy;
+import com.example.injector.metrics.InjectionMetrics;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tuning knobs for {@link HeaderInjector}. Defaults keep the original behavior.
+ */
+@Value
+@Builder
+public class HeaderInjectorOptions {
+    @Builder.Default
+    IdStrategy idStrategy = IdStrategy.RANDOM;
+
+    @Builder.Default
+    TimestampMode timestampMode = TimestampMode.SYSTEM;
+
+    @Builder.Default
+    InjectionMetrics metrics = InjectionMetrics.NOOP;
+
+    /**
+     * Payload formats tried before the ones found on the classpath via
+     * {@link java.util.ServiceLoader}; JSON is always available last.
+     */
+    @Singular
+    List<PayloadExtractorProvider> payloadExtractors;
+
+    /**
+     * Template functions added to, or replacing, the built-ins and the ones
+     * found via {@link java.util.ServiceLoader}.
+     */
+    @Singular
+    List<HeaderFunction> functions;
+
+    /**
+     * Use build-time generated injectors found on the classpath for channels
+     * whose templates they still match, see {@code InjectorGenerator}.
+     */
+    @Builder.Default
+    boolean useGeneratedInjectors = true;
+
+    /**
+     * Check payloads against their message schema ({@code type} and
+     * {@code required}) while reading the header fields, and reject invalid
+     * ones with a {@link com.example.injector.validation.PayloadValidationException}.
+     */
+    boolean validatePayloads;
+
+    /**
+     * When set, retries of a message (same {@code x-dedup-key}, or same
+     * serialized payload) get the headers and key of the first attempt.
+     */
+    HeaderCache headerCache;
+
+    /**
+     * When set, the compiled channel configuration is cached in this file and
+     * used instead of parsing the YAML while the specs are unchanged, see
+     * {@link SpecSnapshot}.
+     */
+    Path specSnapshot;
+
+    /**
+     * When set, injectors with the same pool and compile options share their
+     * compiled specs and channels, see {@link SpecPool}.
+     */
+    SpecPool specPool;
+
+    public static HeaderInjectorOptions defaults() {
+        return builder().build();
+    }
+}
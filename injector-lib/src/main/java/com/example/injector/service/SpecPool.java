@@ -0,0 +1,118 @@
+package com.example.injector.service;
+
+import com.example.injector.id.IdGenerator;
+import com.example.injector.id.IdStrategy;
+import com.example.injector.template.ChannelInjector;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares compiled channel configuration between the {@link HeaderInjector}s of
+ * one process, for gateways that host many tenants with identical or
+ * overlapping specs. Injectors given the same pool, compiling with the same
+ * options, share one compiled spec (registry, routing table and injectors) per
+ * distinct set of spec files. Across different specs they still share one
+ * injector per distinct channel definition, whatever the channel is called,
+ * so {@code tenant-a.orders} and {@code tenant-b.orders} declared alike cost
+ * one set of resolvers and template bytes.
+ *
+ * <p>Entries are keyed by a fingerprint of the {@link SpecSnapshot} encoding
+ * and only weakly held: they go away once no injector uses them anymore.
+ */
+public final class SpecPool {
+    private final ConcurrentHashMap<IdStrategy, IdGenerator> idGenerators = new ConcurrentHashMap<>();
+    private final Interner<CompiledSpec> specs = new Interner<>();
+    private final Interner<ChannelInjector> channels = new Interner<>();
+
+    /**
+     * Distinct spec sets currently shared.
+     */
+    public int specCount() {
+        return specs.size();
+    }
+
+    /**
+     * Distinct channel definitions currently shared.
+     */
+    public int channelCount() {
+        return channels.size();
+    }
+
+    /**
+     * Pooled injectors draw ids from one generator per strategy, so shared
+     * channels behave the same whichever injector compiled them.
+     */
+    IdGenerator idGenerator(IdStrategy strategy) {
+        return idGenerators.computeIfAbsent(strategy, IdStrategy::create);
+    }
+
+    CompiledSpec spec(Object key) {
+        return specs.get(key);
+    }
+
+    /**
+     * @return the spec already shared under {@code key}, else {@code spec}
+     */
+    CompiledSpec intern(Object key, CompiledSpec spec) {
+        return specs.intern(key, spec);
+    }
+
+    ChannelInjector channel(Object key) {
+        return channels.get(key);
+    }
+
+    ChannelInjector intern(Object key, ChannelInjector injector) {
+        return channels.intern(key, injector);
+    }
+
+    private static final class Interner<T> {
+        private final ConcurrentHashMap<Object, Entry<T>> entries = new ConcurrentHashMap<>();
+        private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+
+        T get(Object key) {
+            purge();
+            Entry<T> entry = entries.get(key);
+            return entry == null ? null : entry.get();
+        }
+
+        T intern(Object key, T value) {
+            purge();
+            Entry<T> entry = new Entry<>(key, value, collected);
+            while (true) {
+                Entry<T> existing = entries.putIfAbsent(key, entry);
+                if (existing == null) {
+                    return value;
+                }
+                T shared = existing.get();
+                if (shared != null) {
+                    return shared;
+                }
+                entries.remove(key, existing);
+            }
+        }
+
+        int size() {
+            purge();
+            return entries.size();
+        }
+
+        private void purge() {
+            Reference<? extends T> cleared;
+            while ((cleared = collected.poll()) != null) {
+                entries.remove(((Entry<?>) cleared).key, cleared);
+            }
+        }
+    }
+
+    private static final class Entry<T> extends WeakReference<T> {
+        private final Object key;
+
+        Entry(Object key, T value, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
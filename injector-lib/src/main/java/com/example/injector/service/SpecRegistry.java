@@ -0,0 +1,103 @@
+package com.example.injector.service;
+
+import com.example.injector.model.AsyncApiSpec;
+import com.example.injector.model.Channel;
+import com.example.injector.model.Message;
+import com.example.injector.model.MessageDefinition;
+import com.example.injector.model.Publish;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The set of AsyncAPI specs a {@link HeaderInjector} serves, with their channels
+ * merged into one view. A channel may only be declared by one spec.
+ */
+public final class SpecRegistry {
+    static final String DEFAULT_CONTENT_TYPE = "application/json";
+    static final String MESSAGE_REF_PREFIX = "#/components/messages/";
+
+    private final List<AsyncApiSpec> specs;
+    private final Map<String, Channel> channels;
+    private final Map<String, AsyncApiSpec> declaringSpecs;
+
+    private SpecRegistry(List<AsyncApiSpec> specs, Map<String, Channel> channels, Map<String, AsyncApiSpec> declaringSpecs) {
+        this.specs = specs;
+        this.channels = channels;
+        this.declaringSpecs = declaringSpecs;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no spec declares a channel or two specs declare the same one
+     */
+    public static SpecRegistry merge(List<AsyncApiSpec> specs) {
+        Map<String, Channel> channels = new LinkedHashMap<>();
+        Map<String, AsyncApiSpec> declaringSpecs = new HashMap<>();
+        for (AsyncApiSpec spec : specs) {
+            if (spec == null || spec.getChannels() == null) {
+                continue;
+            }
+            spec.getChannels().forEach((name, channel) -> {
+                if (channels.putIfAbsent(name, channel) != null) {
+                    throw new IllegalArgumentException("Channel " + name + " is declared by more than one spec");
+                }
+                declaringSpecs.put(name, spec);
+            });
+        }
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("AsyncAPI specs declare no channels");
+        }
+        return new SpecRegistry(List.copyOf(specs), Collections.unmodifiableMap(channels), declaringSpecs);
+    }
+
+    public List<AsyncApiSpec> getSpecs() {
+        return specs;
+    }
+
+    public Map<String, Channel> getChannels() {
+        return channels;
+    }
+
+    public Set<String> getChannelNames() {
+        return channels.keySet();
+    }
+
+    /**
+     * The message published on {@code channel}, resolving a
+     * {@code #/components/messages/...} reference against the spec that declares
+     * the channel, or null if there is none.
+     */
+    public MessageDefinition messageOf(String channel) {
+        Channel declared = channels.get(channel);
+        Publish publish = declared == null ? null : declared.getPublish();
+        Message message = publish == null ? null : publish.getMessage();
+        if (message == null || message.getRef() == null || !message.getRef().startsWith(MESSAGE_REF_PREFIX)) {
+            return null;
+        }
+        AsyncApiSpec spec = declaringSpecs.get(channel);
+        if (spec.getComponents() == null || spec.getComponents().getMessages() == null) {
+            return null;
+        }
+        return spec.getComponents().getMessages().get(message.getRef().substring(MESSAGE_REF_PREFIX.length()));
+    }
+
+    /**
+     * The message's {@code contentType}, else the declaring spec's
+     * {@code defaultContentType}, else {@code application/json}.
+     */
+    public String contentTypeOf(String channel) {
+        MessageDefinition message = messageOf(channel);
+        if (message != null && message.getContentType() != null) {
+            return message.getContentType();
+        }
+        AsyncApiSpec spec = declaringSpecs.get(channel);
+        if (spec != null && spec.getDefaultContentType() != null) {
+            return spec.getDefaultContentType();
+        }
+        return DEFAULT_CONTENT_TYPE;
+    }
+}
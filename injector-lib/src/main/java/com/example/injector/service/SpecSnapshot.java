@@ -0,0 +1,361 @@
+package com.example.injector.service;
+
+import com.example.injector.dedup.Fingerprint;
+import com.example.injector.model.AsyncApiSpec;
+import com.example.injector.model.Channel;
+import com.example.injector.model.Components;
+import com.example.injector.model.Message;
+import com.example.injector.model.MessageDefinition;
+import com.example.injector.model.Payload;
+import com.example.injector.model.Property;
+import com.example.injector.model.Publish;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary copy of the channel configuration a {@link HeaderInjector} compiles,
+ * so instances can start without parsing YAML. The file is memory-mapped and
+ * only used while the checksum of the source YAML still matches.
+ *
+ * <pre>
+ * magic     4 bytes   "HISS"
+ * version   2 bytes   {@value #VERSION}
+ * checksum  16 bytes  {@link Fingerprint} of the source YAML, see {@link #checksum(List)}
+ * length    4 bytes   body length
+ * crc       4 bytes   CRC-32 of the body
+ * body      channel count, then per channel: name, content type, x-key, x-dedup-key,
+ *           x-header-encoding, x-header-packed, header count (-1 for none), key and template per header,
+ *           x-producer setting count (-1 for none), name and value per setting,
+ *           payload schema flag, then its type, required list and properties, each property
+ *           with type, format, maxLength (-1 for none), required list and nested properties
+ * </pre>
+ *
+ * Strings are a 4-byte length (-1 for null) followed by UTF-8, lists and maps a
+ * 4-byte size (-1 for null) followed by their elements. {@code x-header-budget}
+ * is not stored, it was checked when the snapshot was written from the same YAML.
+ */
+@Slf4j
+public final class SpecSnapshot {
+    static final int MAGIC = 0x48495353;
+    static final short VERSION = 3;
+    private static final int PREFIX_BYTES = 30;
+
+    private SpecSnapshot() {
+    }
+
+    /**
+     * Fingerprint of the spec sources in order, each prefixed with its length.
+     */
+    public static Fingerprint checksum(List<byte[]> sources) {
+        int size = 0;
+        for (byte[] source : sources) {
+            size += 4 + source.length;
+        }
+        ByteBuffer all = ByteBuffer.allocate(size);
+        for (byte[] source : sources) {
+            all.putInt(source.length).put(source);
+        }
+        return Fingerprint.of(all.array(), 0, size);
+    }
+
+    /**
+     * @return the specs stored in {@code file}, or null if it is missing, corrupt,
+     *         of another version or written for different YAML
+     */
+    public static List<AsyncApiSpec> read(Path file, Fingerprint checksum) {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Could not read spec snapshot {}", file, e);
+            return null;
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                log.info("Ignoring spec snapshot {}: unknown format", file);
+                return null;
+            }
+            if (buffer.getLong() != checksum.high() || buffer.getLong() != checksum.low()) {
+                log.info("Ignoring spec snapshot {}: the specs have changed", file);
+                return null;
+            }
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+            ByteBuffer body = buffer.slice(PREFIX_BYTES, length);
+            CRC32 actual = new CRC32();
+            actual.update(body.duplicate());
+            if ((int) actual.getValue() != crc) {
+                log.warn("Ignoring spec snapshot {}: checksum mismatch", file);
+                return null;
+            }
+            return readBody(body);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            log.warn("Ignoring truncated spec snapshot {}", file);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces {@code file} atomically, so concurrent readers see the old or the
+     * new snapshot, never a partial one.
+     */
+    public static void write(Path file, Fingerprint checksum, SpecRegistry registry) throws IOException {
+        byte[] body = encode(registry);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        ByteBuffer prefix = ByteBuffer.allocate(PREFIX_BYTES)
+                .putInt(MAGIC).putShort(VERSION)
+                .putLong(checksum.high()).putLong(checksum.low())
+                .putInt(body.length).putInt((int) crc.getValue());
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                out.write(new ByteBuffer[]{prefix.flip(), ByteBuffer.wrap(body)});
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * The snapshot body for the registry's channels, also used to hold pooled
+     * specs compactly, see {@link CompiledSpec#compact()}.
+     */
+    static byte[] encode(SpecRegistry registry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream body = new DataOutputStream(bytes)) {
+            encode(registry, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<AsyncApiSpec> decode(byte[] body) {
+        return readBody(ByteBuffer.wrap(body));
+    }
+
+    private static void encode(SpecRegistry registry, DataOutputStream body) throws IOException {
+        Map<String, Channel> channels = new LinkedHashMap<>();
+        registry.getChannels().forEach((name, channel) -> {
+            if (channel != null) {
+                channels.put(name, channel);
+            }
+        });
+        body.writeInt(channels.size());
+        for (Map.Entry<String, Channel> entry : channels.entrySet()) {
+            writeString(body, entry.getKey());
+            writeChannel(body, entry.getValue(), registry.contentTypeOf(entry.getKey()), registry.messageOf(entry.getKey()));
+        }
+    }
+
+    /**
+     * Fingerprint of everything a channel is compiled from, its name aside, in
+     * the snapshot's encoding. Equal fingerprints compile to equivalent injectors.
+     */
+    static Fingerprint fingerprint(Channel channel, String contentType, MessageDefinition message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeChannel(out, channel, contentType, message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Fingerprint.of(bytes.toByteArray(), 0, bytes.size());
+    }
+
+    private static void writeChannel(DataOutputStream out, Channel channel, String contentType, MessageDefinition message)
+            throws IOException {
+        writeString(out, contentType);
+        writeString(out, channel.getXKey());
+        writeString(out, channel.getXDedupKey());
+        writeString(out, channel.getXHeaderEncoding());
+        out.writeByte(channel.getXHeaderPacked() == null ? 0 : channel.getXHeaderPacked() ? 2 : 1);
+        writeMap(out, channel.getXHeaders());
+        writeMap(out, channel.getXProducer());
+        Payload payload = message == null ? null : message.getPayload();
+        out.writeBoolean(payload != null);
+        if (payload != null) {
+            writeString(out, payload.getType());
+            writeList(out, payload.getRequired());
+            writeProperties(out, payload.getProperties());
+        }
+    }
+
+    /**
+     * Channels are regrouped into one spec per content type, which becomes the
+     * spec's {@code defaultContentType}. Each channel's payload schema becomes a
+     * message named after the channel.
+     */
+    private static List<AsyncApiSpec> readBody(ByteBuffer body) {
+        Map<String, Map<String, Channel>> byContentType = new LinkedHashMap<>();
+        Map<String, Map<String, MessageDefinition>> messages = new LinkedHashMap<>();
+        int channelCount = body.getInt();
+        for (int i = 0; i < channelCount; i++) {
+            String name = readString(body);
+            String contentType = readString(body);
+            Channel channel = new Channel();
+            channel.setXKey(readString(body));
+            channel.setXDedupKey(readString(body));
+            channel.setXHeaderEncoding(readString(body));
+            byte packed = body.get();
+            channel.setXHeaderPacked(packed == 0 ? null : packed == 2);
+            channel.setXHeaders(readMap(body));
+            channel.setXProducer(readMap(body));
+            if (body.get() != 0) {
+                Payload payload = new Payload();
+                payload.setType(readString(body));
+                payload.setRequired(readList(body));
+                payload.setProperties(readProperties(body));
+                MessageDefinition message = new MessageDefinition();
+                message.setPayload(payload);
+                messages.computeIfAbsent(contentType, c -> new LinkedHashMap<>()).put(name, message);
+                Message ref = new Message();
+                ref.setRef(SpecRegistry.MESSAGE_REF_PREFIX + name);
+                Publish publish = new Publish();
+                publish.setMessage(ref);
+                channel.setPublish(publish);
+            }
+            byContentType.computeIfAbsent(contentType, c -> new LinkedHashMap<>()).put(name, channel);
+        }
+        List<AsyncApiSpec> specs = new ArrayList<>(byContentType.size());
+        byContentType.forEach((contentType, channels) -> {
+            AsyncApiSpec spec = new AsyncApiSpec();
+            spec.setDefaultContentType(contentType);
+            spec.setChannels(channels);
+            Components components = new Components();
+            components.setMessages(messages.get(contentType));
+            spec.setComponents(components);
+            specs.add(spec);
+        });
+        return specs;
+    }
+
+    private static void writeProperties(DataOutputStream out, Map<String, Property> properties) throws IOException {
+        if (properties == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(properties.size());
+        for (Map.Entry<String, Property> entry : properties.entrySet()) {
+            Property property = entry.getValue() == null ? new Property() : entry.getValue();
+            writeString(out, entry.getKey());
+            writeString(out, property.getType());
+            writeString(out, property.getFormat());
+            out.writeInt(property.getMaxLength() == null ? -1 : property.getMaxLength());
+            writeList(out, property.getRequired());
+            writeProperties(out, property.getProperties());
+        }
+    }
+
+    private static Map<String, Property> readProperties(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, Property> properties = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String name = readString(in);
+            Property property = new Property();
+            property.setType(readString(in));
+            property.setFormat(readString(in));
+            int maxLength = in.getInt();
+            property.setMaxLength(maxLength < 0 ? null : maxLength);
+            property.setRequired(readList(in));
+            property.setProperties(readProperties(in));
+            properties.put(name, property);
+        }
+        return properties;
+    }
+
+    private static void writeList(DataOutputStream out, List<String> list) throws IOException {
+        if (list == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(list.size());
+        for (String value : list) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readList(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readString(in));
+        }
+        return list;
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        if (map == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readMap(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.injector.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a spec file, or every spec in a directory, with NIO's
+ * {@link WatchService} and runs a reload on a background thread whenever one
+ * changes. For a single file its parent directory is watched so editors that
+ * replace the file via rename are picked up too. A reload that fails is logged
+ * and the previous version keeps serving.
+ */
+@Slf4j
+public class SpecWatcher implements AutoCloseable {
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final Path location;
+    private final boolean directory;
+    private final ReloadAction reloadAction;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    @FunctionalInterface
+    public interface ReloadAction {
+        void reload() throws Exception;
+    }
+
+    public SpecWatcher(Path location, ReloadAction reloadAction) throws IOException {
+        this.location = location.toAbsolutePath();
+        this.directory = Files.isDirectory(this.location);
+        this.reloadAction = reloadAction;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Path watched = directory ? this.location : this.location.getParent();
+        watched.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.thread = new Thread(this::run, "header-injector-spec-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching AsyncAPI spec location {} for changes", this.location);
+    }
+
+    public static boolean isSpecFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(".yaml") || name.endsWith(".yml");
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path && affectsSpecs((Path) event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    // Let the writer finish and coalesce the burst of events a single save produces
+                    TimeUnit.MILLISECONDS.sleep(DEBOUNCE_MILLIS);
+                    drain();
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("Stopped watching {}", location);
+        }
+    }
+
+    private boolean affectsSpecs(Path changed) {
+        return directory ? isSpecFile(changed) : location.getFileName().equals(changed);
+    }
+
+    private void drain() {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    private void reload() {
+        try {
+            reloadAction.reload();
+        } catch (Exception e) {
+            log.error("Failed to reload AsyncAPI spec from {}, keeping the previous version", location, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        watchService.close();
+    }
+}
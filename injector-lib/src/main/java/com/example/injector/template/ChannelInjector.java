@@ -0,0 +1,48 @@
+package com.example.injector.template;
+
+import org.apache.kafka.common.header.Headers;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Injects one channel's headers. {@link ChannelPlan} interprets compiled
+ * templates; build-time generated injectors implement this directly.
+ */
+public interface ChannelInjector {
+
+    List<String> headerKeys();
+
+    /**
+     * Number of record headers {@link #inject} adds; differs from the number of
+     * keys when the channel packs its values into one header.
+     */
+    default int headerCount() {
+        return headerKeys().size();
+    }
+
+    /**
+     * Reads the payload fields the channel references, in a single pass.
+     */
+    MessageContext read(Object payload) throws IOException;
+
+    /**
+     * Adds the channel's headers and, if the channel defines a record key,
+     * stores it with {@link MessageContext#setKey}.
+     *
+     * @return the number of header key and value bytes added
+     */
+    int inject(Headers headers, MessageContext context);
+
+    /**
+     * The business key identifying retries of the same logical message, or null
+     * if the channel has none and the payload itself should be fingerprinted.
+     */
+    default byte[] dedupKey(MessageContext context) {
+        return null;
+    }
+
+    default int inject(Headers headers, Object payload) throws IOException {
+        return inject(headers, read(payload));
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.injector.template;
+
+import com.example.injector.codec.HeaderEncoding;
+import com.example.injector.codec.PackedHeaders;
+import com.example.injector.extract.JsonPayloadExtractorProvider;
+import com.example.injector.extract.PayloadExtractor;
+import com.example.injector.extract.PayloadExtractorProvider;
+import com.example.injector.model.Channel;
+import com.example.injector.validation.PayloadSchema;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable injection plan for one channel: the header keys in spec order, a
+ * compiled resolver per key, the record key and the payload fields they read.
+ */
+public final class ChannelPlan implements ChannelInjector {
+    /**
+     * Header whose value becomes the record key when a channel has no {@code x-key}.
+     */
+    public static final String DEFAULT_KEY_HEADER = "aggregateId";
+
+    private static final PayloadExtractorProvider JSON = new JsonPayloadExtractorProvider();
+    private static final int PACKED_KEY_BYTES = PackedHeaders.KEY.length();
+
+    private final String[] headerKeys;
+    private final List<String> headerKeyList;
+    private final int headerKeyBytes;
+    private final ValueResolver[] resolvers;
+    private final ValueResolver keyResolver;
+    private final int keyHeader;
+    private final ValueResolver dedupResolver;
+    private final HeaderEncoding encoding;
+    private final boolean packed;
+    private final int packedKeyHash;
+    private final String[][] fieldPaths;
+    private final PayloadSchema schema;
+    private final PayloadExtractor extractor;
+
+    private ChannelPlan(String[] headerKeys, ValueResolver[] resolvers, ValueResolver keyResolver, int keyHeader,
+                        ValueResolver dedupResolver, HeaderEncoding encoding, boolean packed,
+                        List<String> fieldPaths, PayloadExtractorProvider payloadFormat, PayloadSchema schema) {
+        this.headerKeys = headerKeys;
+        this.headerKeyList = List.of(headerKeys);
+        int keyBytes = 0;
+        for (String key : headerKeys) {
+            keyBytes += key.getBytes(StandardCharsets.UTF_8).length;
+        }
+        this.headerKeyBytes = keyBytes;
+        this.resolvers = resolvers;
+        this.keyResolver = keyResolver;
+        this.keyHeader = keyHeader;
+        this.dedupResolver = dedupResolver;
+        this.encoding = encoding;
+        this.packed = packed;
+        this.packedKeyHash = PackedHeaders.keyHash(headerKeyList);
+        this.fieldPaths = fieldPaths.stream().map(path -> path.split("\\.")).toArray(String[][]::new);
+        this.schema = schema;
+        this.extractor = schema == null ? payloadFormat.create(fieldPaths) : payloadFormat.create(fieldPaths, schema);
+    }
+
+    public static ChannelPlan compile(Channel channel) {
+        return compile(channel, new TemplateCompiler());
+    }
+
+    /**
+     * @param compiler a fresh compiler; its field slots become this plan's slots
+     */
+    public static ChannelPlan compile(Channel channel, TemplateCompiler compiler) {
+        return compile(channel, compiler, JSON);
+    }
+
+    /**
+     * The record key comes from the channel's {@code x-key} template if it has
+     * one, otherwise it reuses the value of the {@value #DEFAULT_KEY_HEADER}
+     * header, if declared. Key fields share slots with the header fields.
+     * {@code x-header-encoding} and {@code x-header-packed} select the wire
+     * format, see {@link HeaderEncoding} and {@link PackedHeaders}.
+     *
+     * @param payloadFormat creates the extractor for serialized payloads on this channel
+     * @throws IllegalArgumentException if {@code x-dedup-key} uses anything but payload fields and
+     *                                  literals, or the header encoding is unknown
+     */
+    public static ChannelPlan compile(Channel channel, TemplateCompiler compiler, PayloadExtractorProvider payloadFormat) {
+        return compile(channel, compiler, payloadFormat, null);
+    }
+
+    /**
+     * @param schema when not null, payloads are validated against it while their fields are read;
+     *               a channel without {@code x-headers} then only validates
+     */
+    public static ChannelPlan compile(Channel channel, TemplateCompiler compiler, PayloadExtractorProvider payloadFormat,
+                                      PayloadSchema schema) {
+        Map<String, String> xHeaders = channel.getXHeaders() == null ? Map.of() : channel.getXHeaders();
+        HeaderEncoding encoding = HeaderEncoding.of(channel.getXHeaderEncoding());
+        String[] keys = new String[xHeaders.size()];
+        ValueResolver[] resolvers = new ValueResolver[xHeaders.size()];
+        int keyHeader = -1;
+        int i = 0;
+        for (Map.Entry<String, String> entry : xHeaders.entrySet()) {
+            keys[i] = entry.getKey();
+            resolvers[i] = compiler.compile(entry.getValue(), encoding);
+            if (keys[i].equals(DEFAULT_KEY_HEADER)) {
+                keyHeader = i;
+            }
+            i++;
+        }
+        ValueResolver keyResolver = null;
+        if (channel.getXKey() != null) {
+            keyResolver = compiler.compile(channel.getXKey());
+            keyHeader = -1;
+        }
+        ValueResolver dedupResolver = null;
+        if (channel.getXDedupKey() != null) {
+            for (TemplateSegment segment : TemplateCompiler.parse(channel.getXDedupKey())) {
+                if (segment.getKind() != TemplateSegment.Kind.LITERAL && segment.getKind() != TemplateSegment.Kind.PAYLOAD_FIELD) {
+                    throw new IllegalArgumentException("x-dedup-key must be derived from the payload: " + channel.getXDedupKey());
+                }
+            }
+            dedupResolver = compiler.compile(channel.getXDedupKey());
+        }
+        boolean packed = Boolean.TRUE.equals(channel.getXHeaderPacked());
+        return new ChannelPlan(keys, resolvers, keyResolver, keyHeader, dedupResolver, encoding, packed,
+                compiler.fieldPaths(), payloadFormat, schema);
+    }
+
+    @Override
+    public List<String> headerKeys() {
+        return headerKeyList;
+    }
+
+    /**
+     * String, byte[] and ByteBuffer payloads are read by the channel's payload
+     * extractor, Maps are walked directly; other payloads provide no fields and
+     * are not validated.
+     */
+    @Override
+    public MessageContext read(Object payload) throws IOException {
+        MessageContext context = new MessageContext(fieldPaths.length);
+        if (fieldPaths.length > 0 || schema != null) {
+            extract(payload, context);
+        }
+        return context;
+    }
+
+    @Override
+    public int headerCount() {
+        return packed ? 1 : headerKeys.length;
+    }
+
+    @Override
+    public int inject(Headers headers, MessageContext context) {
+        if (packed) {
+            return injectPacked(headers, context);
+        }
+        int bytes = headerKeyBytes;
+        for (int i = 0; i < headerKeys.length; i++) {
+            byte[] value = resolvers[i].resolve(context);
+            headers.add(new RecordHeader(headerKeys[i], value));
+            bytes += value.length;
+            if (i == keyHeader) {
+                context.setKey(value);
+            }
+        }
+        if (keyResolver != null) {
+            context.setKey(keyResolver.resolve(context));
+        }
+        return bytes;
+    }
+
+    private int injectPacked(Headers headers, MessageContext context) {
+        byte[][] values = new byte[resolvers.length][];
+        for (int i = 0; i < resolvers.length; i++) {
+            values[i] = resolvers[i].resolve(context);
+            if (i == keyHeader) {
+                context.setKey(values[i]);
+            }
+        }
+        if (keyResolver != null) {
+            context.setKey(keyResolver.resolve(context));
+        }
+        byte[] value = PackedHeaders.pack(values, packedKeyHash, encoding);
+        headers.add(new RecordHeader(PackedHeaders.KEY, value));
+        return PACKED_KEY_BYTES + value.length;
+    }
+
+    @Override
+    public byte[] dedupKey(MessageContext context) {
+        return dedupResolver == null ? null : dedupResolver.resolve(context);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void extract(Object payload, MessageContext context) throws IOException {
+        if (payload instanceof String) {
+            extractor.extract((String) payload, context);
+        } else if (payload instanceof byte[]) {
+            byte[] bytes = (byte[]) payload;
+            extractor.extract(bytes, 0, bytes.length, context);
+        } else if (payload instanceof ByteBuffer) {
+            extractor.extract((ByteBuffer) payload, context);
+        } else if (payload instanceof Map) {
+            Map<String, Object> map = (Map<String, Object>) payload;
+            if (schema != null) {
+                schema.validate(map);
+            }
+            for (int slot = 0; slot < fieldPaths.length; slot++) {
+                context.setField(slot, lookup(map, fieldPaths[slot]));
+            }
+        }
+    }
+
+    private static Object lookup(Map<String, Object> payload, String[] path) {
+        Object value = payload;
+        for (String segment : path) {
+            if (!(value instanceof Map)) {
+                return null;
+            }
+            value = ((Map<?, ?>) value).get(segment);
+        }
+        return value;
+    }
+}
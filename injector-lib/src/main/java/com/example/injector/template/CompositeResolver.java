@@ -0,0 +1,21 @@
+package com.example.injector.template;
+
+/**
+ * Mixed literal/expression template such as {@code order-${message.payload.id}}.
+ */
+final class CompositeResolver implements ValueResolver {
+    private final ValueResolver[] parts;
+
+    CompositeResolver(ValueResolver[] parts) {
+        this.parts = parts;
+    }
+
+    @Override
+    public byte[] resolve(MessageContext context) {
+        byte[][] values = new byte[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = parts[i].resolve(context);
+        }
+        return Utf8.concat(values);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.injector.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Syntax tree of one {@code ${...}} expression:
+ *
+ * <pre>
+ * expression := 'string' | message.payload.field[.field...] | name([expression[, expression...]])
+ * </pre>
+ *
+ * Quotes inside a string literal are doubled ({@code 'it''s'}). Field names are
+ * Java identifier characters and {@code '-'}; a path has no empty or blank segments.
+ */
+final class Expression {
+    enum Kind { STRING, PAYLOAD_FIELD, CALL }
+
+    private static final String PAYLOAD_PREFIX = "message.payload.";
+
+    final Kind kind;
+    final String text;
+    final List<Expression> arguments;
+
+    private Expression(Kind kind, String text, List<Expression> arguments) {
+        this.kind = kind;
+        this.text = text;
+        this.arguments = arguments;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the source is not a valid expression
+     */
+    static Expression parse(String source) {
+        Parser parser = new Parser(source);
+        Expression expression = parser.expression();
+        parser.skipWhitespace();
+        if (parser.pos != source.length()) {
+            throw parser.error("unexpected '" + source.charAt(parser.pos) + "'");
+        }
+        return expression;
+    }
+
+    private static final class Parser {
+        private final String source;
+        private int pos;
+
+        private Parser(String source) {
+            this.source = source;
+        }
+
+        private Expression expression() {
+            skipWhitespace();
+            if (pos < source.length() && source.charAt(pos) == '\'') {
+                return string();
+            }
+            int start = pos;
+            while (pos < source.length() && isNameChar(source.charAt(pos))) {
+                pos++;
+            }
+            String name = source.substring(start, pos);
+            if (name.isEmpty()) {
+                throw error(pos < source.length() ? "unexpected '" + source.charAt(pos) + "'" : "missing expression");
+            }
+            skipWhitespace();
+            if (pos < source.length() && source.charAt(pos) == '(') {
+                pos++;
+                return new Expression(Kind.CALL, name, arguments());
+            }
+            if (name.startsWith(PAYLOAD_PREFIX) && name.length() > PAYLOAD_PREFIX.length() && !name.endsWith(".")
+                    && !name.contains("..")) {
+                return new Expression(Kind.PAYLOAD_FIELD, name.substring(PAYLOAD_PREFIX.length()), List.of());
+            }
+            throw error("unknown reference " + name);
+        }
+
+        private static boolean isNameChar(char c) {
+            return c == '.' || c == '-' || Character.isJavaIdentifierPart(c) && !Character.isIdentifierIgnorable(c);
+        }
+
+        private List<Expression> arguments() {
+            List<Expression> arguments = new ArrayList<>();
+            skipWhitespace();
+            if (pos < source.length() && source.charAt(pos) == ')') {
+                pos++;
+                return arguments;
+            }
+            while (true) {
+                arguments.add(expression());
+                skipWhitespace();
+                if (pos >= source.length()) {
+                    throw error("missing ')'");
+                }
+                char c = source.charAt(pos++);
+                if (c == ')') {
+                    return List.copyOf(arguments);
+                }
+                if (c != ',') {
+                    throw error("expected ',' or ')' but found '" + c + "'");
+                }
+            }
+        }
+
+        private Expression string() {
+            StringBuilder value = new StringBuilder();
+            pos++;
+            while (pos < source.length()) {
+                char c = source.charAt(pos++);
+                if (c != '\'') {
+                    value.append(c);
+                } else if (pos < source.length() && source.charAt(pos) == '\'') {
+                    value.append('\'');
+                    pos++;
+                } else {
+                    return new Expression(Kind.STRING, value.toString(), List.of());
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private void skipWhitespace() {
+            while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid expression ${" + source + "}: " + message);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.injector.template;
+
+import java.nio.charset.StandardCharsets;
+
+final class LiteralResolver implements ValueResolver {
+    private final byte[] value;
+
+    LiteralResolver(String value) {
+        this.value = value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    LiteralResolver(byte[] value) {
+        this.value = value;
+    }
+
+    byte[] value() {
+        return value;
+    }
+
+    @Override
+    public byte[] resolve(MessageContext context) {
+        return value;
+    }
+}
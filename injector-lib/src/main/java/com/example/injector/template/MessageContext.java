@@ -0,0 +1,91 @@
+package com.example.injector.template;
+
+import com.example.injector.id.IdGenerator;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Per-message state handed to {@link ValueResolver}s. Payload fields referenced
+ * by a channel's templates are extracted once into slots so every resolver
+ * reads them by index instead of walking the payload again. The record key a
+ * channel derives from the message is left here by the injector.
+ */
+public final class MessageContext {
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Object[] fields;
+    private byte[] key;
+    private long timestamp = NO_TIMESTAMP;
+    private byte[] messageId;
+    private MessageGroup group;
+
+    public MessageContext(int fieldCount) {
+        this.fields = new Object[fieldCount];
+    }
+
+    public Object field(int slot) {
+        return fields[slot];
+    }
+
+    public void setField(int slot, Object value) {
+        fields[slot] = value;
+    }
+
+    /**
+     * The resolved record key, or null if the channel defines none.
+     */
+    public byte[] key() {
+        return key;
+    }
+
+    public void setKey(byte[] key) {
+        this.key = key;
+    }
+
+    /**
+     * The message's timestamp: its group's if it has one, else the clock read
+     * on first use, so every timestamp header of the message agrees.
+     */
+    public long timestamp(LongSupplier clock) {
+        if (timestamp == NO_TIMESTAMP) {
+            timestamp = group != null ? group.timestamp() : clock.getAsLong();
+        }
+        return timestamp;
+    }
+
+    /**
+     * The message's own id, generated on first use.
+     */
+    public byte[] messageId(IdGenerator ids) {
+        if (messageId == null) {
+            messageId = ids.next();
+        }
+        return messageId;
+    }
+
+    /**
+     * The group's correlation id, or the message's own id outside a group.
+     */
+    public byte[] correlationId(IdGenerator ids) {
+        return group == null ? messageId(ids) : group.correlationId(this, ids);
+    }
+
+    /**
+     * The id of the previous message in the group, or the message's own id
+     * outside a group.
+     */
+    public byte[] causationId(IdGenerator ids) {
+        return group == null ? messageId(ids) : group.causationId(this, ids);
+    }
+
+    /**
+     * The group this message is published with, or null.
+     */
+    public MessageGroup group() {
+        return group;
+    }
+
+    public void setGroup(MessageGroup group) {
+        this.group = group;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.injector.template;
+
+import com.example.injector.id.IdGenerator;
+
+/**
+ * Messages published together, e.g. in one transaction, in order. They share
+ * one timestamp and one correlation id, and each message's causation id is the
+ * message id of the one before it. Without an explicit correlation id the
+ * first message starts the chain: its correlation and causation ids are its
+ * own message id. Not thread-safe; a group is injected by one thread.
+ */
+public final class MessageGroup {
+    private final long timestamp;
+    private byte[] correlationId;
+    private final byte[] causationId;
+    private byte[] previousMessageId;
+
+    /**
+     * @param correlationId the group's correlation id, or null to use the first message's id
+     * @param causationId   the first message's causation id, or null to use the correlation id
+     */
+    public MessageGroup(long timestamp, byte[] correlationId, byte[] causationId) {
+        this.timestamp = timestamp;
+        this.correlationId = correlationId;
+        this.causationId = causationId;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public byte[] correlationId(MessageContext context, IdGenerator ids) {
+        return correlationId != null ? correlationId : context.messageId(ids);
+    }
+
+    public byte[] causationId(MessageContext context, IdGenerator ids) {
+        if (previousMessageId != null) {
+            return previousMessageId;
+        }
+        return causationId != null ? causationId : correlationId(context, ids);
+    }
+
+    /**
+     * Records {@code context}'s message as the one the next message was caused by.
+     */
+    public void advance(MessageContext context, IdGenerator ids) {
+        byte[] messageId = context.messageId(ids);
+        if (correlationId == null) {
+            correlationId = messageId;
+        }
+        previousMessageId = messageId;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.injector.template;
+
+final class PayloadFieldResolver implements ValueResolver {
+    private final int slot;
+
+    PayloadFieldResolver(int slot) {
+        this.slot = slot;
+    }
+
+    @Override
+    public byte[] resolve(MessageContext context) {
+        return Utf8.encode(context.field(slot));
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.injector.template;
+
+import com.example.injector.codec.HeaderEncoding;
+import com.example.injector.function.FunctionCall;
+import com.example.injector.function.HeaderFunction;
+import com.example.injector.function.HeaderFunctions;
+import com.example.injector.id.IdGenerator;
+import com.example.injector.id.IdStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compiles {@code x-headers} templates into {@link ValueResolver}s. One compiler
+ * is used per channel so that payload fields referenced by several headers share
+ * a single extraction slot. Function calls are bound to their {@link HeaderFunction}
+ * here, so a spec using an unknown function or wrong arguments fails to load.
+ */
+public final class TemplateCompiler {
+    private static final int TIMESTAMP_TEXT_BYTES = 20;
+    private static final int TIMESTAMP_BINARY_BYTES = 8;
+
+    private final Map<String, Integer> fieldSlots = new LinkedHashMap<>();
+    private final HeaderFunctions functions;
+    private final IdGenerator idGenerator;
+    private final LongSupplier clock;
+    private final UuidResolver uuidResolver;
+    private final TimestampResolver timestampResolver;
+    private final UuidResolver binaryUuidResolver;
+    private final TimestampResolver binaryTimestampResolver;
+
+    public TemplateCompiler() {
+        this(IdStrategy.RANDOM.create(), System::currentTimeMillis);
+    }
+
+    public TemplateCompiler(IdGenerator idGenerator, LongSupplier clock) {
+        this(idGenerator, clock, HeaderFunctions.builtins());
+    }
+
+    public TemplateCompiler(IdGenerator idGenerator, LongSupplier clock, HeaderFunctions functions) {
+        this.functions = functions;
+        this.idGenerator = idGenerator;
+        this.clock = clock;
+        this.uuidResolver = new UuidResolver(idGenerator, false);
+        this.timestampResolver = new TimestampResolver(clock, false);
+        this.binaryUuidResolver = new UuidResolver(idGenerator, true);
+        this.binaryTimestampResolver = new TimestampResolver(clock, true);
+    }
+
+    public ValueResolver compile(String template) {
+        return compile(template, HeaderEncoding.TEXT);
+    }
+
+    /**
+     * With {@link HeaderEncoding#BINARY}, a template that is exactly
+     * {@code ${uuid()}}, {@code ${timestamp()}} or a call of a function that
+     * {@link HeaderFunction#returnsId() returns an ID} resolves to raw bytes.
+     */
+    public ValueResolver compile(String template, HeaderEncoding encoding) {
+        List<TemplateSegment> segments = parse(template);
+        if (encoding == HeaderEncoding.BINARY && segments.size() == 1) {
+            TemplateSegment segment = segments.get(0);
+            if (segment.getKind() == TemplateSegment.Kind.UUID) {
+                return binaryUuidResolver;
+            } else if (segment.getKind() == TemplateSegment.Kind.TIMESTAMP) {
+                return binaryTimestampResolver;
+            } else if (isId(segment, functions)) {
+                ValueResolver id = compile(segment);
+                return context -> idGenerator.toBinary(id.resolve(context));
+            }
+        }
+        ValueResolver[] parts = new ValueResolver[segments.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = compile(segments.get(i));
+        }
+        return parts.length == 1 ? parts[0] : new CompositeResolver(parts);
+    }
+
+    /**
+     * Splits a template into literal and expression segments. Adjacent literal
+     * text is merged and the result is never empty. Function names are not
+     * checked here, only the syntax.
+     *
+     * @throws IllegalArgumentException if an expression is malformed or refers to anything but the payload
+     */
+    public static List<TemplateSegment> parse(String template) {
+        List<TemplateSegment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int pos = 0;
+        while (pos < template.length()) {
+            int start = template.indexOf("${", pos);
+            int end = start < 0 ? -1 : expressionEnd(template, start + 2);
+            if (end < 0) {
+                literal.append(template, pos, template.length());
+                break;
+            }
+            literal.append(template, pos, start);
+            if (literal.length() > 0) {
+                segments.add(new TemplateSegment(TemplateSegment.Kind.LITERAL, literal.toString()));
+                literal.setLength(0);
+            }
+            segments.add(parseExpression(template.substring(start + 2, end)));
+            pos = end + 1;
+        }
+        if (literal.length() > 0 || segments.isEmpty()) {
+            segments.add(new TemplateSegment(TemplateSegment.Kind.LITERAL, literal.toString()));
+        }
+        return segments;
+    }
+
+    /**
+     * Whether the segment is {@code ${uuid()}} or a call of a function that
+     * {@link HeaderFunction#returnsId() returns an ID}.
+     */
+    public static boolean isId(TemplateSegment segment, HeaderFunctions functions) {
+        if (segment.getKind() == TemplateSegment.Kind.UUID) {
+            return true;
+        }
+        if (segment.getKind() != TemplateSegment.Kind.FUNCTION) {
+            return false;
+        }
+        Expression expression = Expression.parse(segment.getText());
+        HeaderFunction function = expression.kind == Expression.Kind.CALL ? functions.get(expression.text) : null;
+        return function != null && function.returnsId();
+    }
+
+    /**
+     * Most bytes {@code template} can resolve to with the given encoding, for
+     * {@code x-header-budget}. Function calls are compiled to measure them, so
+     * use a compiler of its own.
+     *
+     * @param fieldBytes the most bytes a payload field takes, by path
+     * @throws IllegalArgumentException if a function call has no bounded size
+     */
+    public int maxBytes(String template, HeaderEncoding encoding, ToIntFunction<String> fieldBytes) {
+        List<TemplateSegment> segments = parse(template);
+        if (encoding == HeaderEncoding.BINARY && segments.size() == 1) {
+            if (segments.get(0).getKind() == TemplateSegment.Kind.TIMESTAMP) {
+                return TIMESTAMP_BINARY_BYTES;
+            } else if (isId(segments.get(0), functions)) {
+                return IdGenerator.BINARY_BYTES;
+            }
+        }
+        int bytes = 0;
+        for (TemplateSegment segment : segments) {
+            switch (segment.getKind()) {
+                case UUID:
+                    bytes += IdGenerator.MAX_TEXT_BYTES;
+                    break;
+                case TIMESTAMP:
+                    bytes += TIMESTAMP_TEXT_BYTES;
+                    break;
+                case PAYLOAD_FIELD:
+                    bytes += fieldBytes.applyAsInt(segment.getText());
+                    break;
+                case FUNCTION:
+                    bytes += maxBytes(Expression.parse(segment.getText()), fieldBytes);
+                    break;
+                default:
+                    bytes += segment.getText().getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Payload fields referenced by the compiled templates, in slot order.
+     */
+    public List<String> fieldPaths() {
+        return List.copyOf(fieldSlots.keySet());
+    }
+
+    /**
+     * The slot a payload field is extracted into, allocating one on first use.
+     */
+    public int slotOf(String fieldPath) {
+        return fieldSlots.computeIfAbsent(fieldPath, f -> fieldSlots.size());
+    }
+
+    private ValueResolver compile(TemplateSegment segment) {
+        switch (segment.getKind()) {
+            case UUID:
+                return uuidResolver;
+            case TIMESTAMP:
+                return timestampResolver;
+            case PAYLOAD_FIELD:
+                return new PayloadFieldResolver(slotOf(segment.getText()));
+            case FUNCTION:
+                return compile(Expression.parse(segment.getText()));
+            default:
+                return new LiteralResolver(segment.getText());
+        }
+    }
+
+    private ValueResolver compile(Expression expression) {
+        switch (expression.kind) {
+            case STRING:
+                return new LiteralResolver(expression.text);
+            case PAYLOAD_FIELD:
+                return new PayloadFieldResolver(slotOf(expression.text));
+            default:
+                return call(expression);
+        }
+    }
+
+    private ValueResolver call(Expression expression) {
+        String name = expression.text;
+        if (name.equals("uuid") || name.equals("timestamp")) {
+            if (!expression.arguments.isEmpty()) {
+                throw new IllegalArgumentException(name + "() takes no arguments");
+            }
+            return name.equals("uuid") ? uuidResolver : timestampResolver;
+        }
+        return call(function(name), bind(expression));
+    }
+
+    private ValueResolver call(HeaderFunction function, FunctionCall call) {
+        ValueResolver resolver = function.compile(call);
+        boolean constant = function.isDeterministic()
+                && call.arguments().stream().allMatch(argument -> argument instanceof LiteralResolver);
+        // Arguments are all literals, so the context is never read
+        return constant ? new LiteralResolver(resolver.resolve(null)) : resolver;
+    }
+
+    private HeaderFunction function(String name) {
+        HeaderFunction function = functions.get(name);
+        if (function == null) {
+            throw new IllegalArgumentException("Unknown function " + name + "(), available: " + functions.names());
+        }
+        return function;
+    }
+
+    private FunctionCall bind(Expression expression) {
+        List<ValueResolver> arguments = new ArrayList<>(expression.arguments.size());
+        List<String> literals = new ArrayList<>(expression.arguments.size());
+        for (Expression argument : expression.arguments) {
+            arguments.add(compile(argument));
+            literals.add(argument.kind == Expression.Kind.STRING ? argument.text : null);
+        }
+        return new FunctionCall(expression.text, List.copyOf(arguments), literals, clock, idGenerator);
+    }
+
+    private int maxBytes(Expression expression, ToIntFunction<String> fieldBytes) {
+        switch (expression.kind) {
+            case STRING:
+                return expression.text.getBytes(StandardCharsets.UTF_8).length;
+            case PAYLOAD_FIELD:
+                return fieldBytes.applyAsInt(expression.text);
+            default:
+        }
+        if (expression.text.equals("uuid") || expression.text.equals("timestamp")) {
+            call(expression);
+            return expression.text.equals("uuid") ? IdGenerator.MAX_TEXT_BYTES : TIMESTAMP_TEXT_BYTES;
+        }
+        HeaderFunction function = function(expression.text);
+        FunctionCall call = bind(expression);
+        ValueResolver resolver = call(function, call);
+        if (resolver instanceof LiteralResolver) {
+            return ((LiteralResolver) resolver).value().length;
+        }
+        int[] argumentBytes = new int[call.arity()];
+        for (int i = 0; i < argumentBytes.length; i++) {
+            argumentBytes[i] = maxBytes(expression.arguments.get(i), fieldBytes);
+        }
+        int bytes = function.maxBytes(call, argumentBytes);
+        if (bytes < 0) {
+            throw new IllegalArgumentException(expression.text + "() has no bounded size");
+        }
+        return bytes;
+    }
+
+    private static TemplateSegment parseExpression(String source) {
+        if (source.equals("uuid()")) {
+            return new TemplateSegment(TemplateSegment.Kind.UUID, source);
+        } else if (source.equals("timestamp()")) {
+            return new TemplateSegment(TemplateSegment.Kind.TIMESTAMP, source);
+        }
+        Expression expression = Expression.parse(source);
+        if (expression.kind == Expression.Kind.PAYLOAD_FIELD) {
+            return new TemplateSegment(TemplateSegment.Kind.PAYLOAD_FIELD, expression.text);
+        }
+        if (expression.kind == Expression.Kind.CALL && expression.arguments.isEmpty()
+                && (expression.text.equals("uuid") || expression.text.equals("timestamp"))) {
+            return expression.text.equals("uuid")
+                    ? new TemplateSegment(TemplateSegment.Kind.UUID, source)
+                    : new TemplateSegment(TemplateSegment.Kind.TIMESTAMP, source);
+        }
+        return new TemplateSegment(TemplateSegment.Kind.FUNCTION, source.trim());
+    }
+
+    /**
+     * Index of the {@code '}'} closing an expression, skipping quoted strings, or -1.
+     */
+    private static int expressionEnd(String template, int from) {
+        boolean quoted = false;
+        for (int i = from; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '}' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
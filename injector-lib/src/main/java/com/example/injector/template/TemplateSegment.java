@@ -0,0 +1,16 @@
+package com.example.injector.template;
+
+import lombok.Value;
+
+/**
+ * One piece of a parsed {@code x-headers} template: literal text or a supported
+ * expression. For {@link Kind#PAYLOAD_FIELD} the text is the dotted field path,
+ * for {@link Kind#FUNCTION} the source of the function call.
+ */
+@Value
+public class TemplateSegment {
+    public enum Kind { LITERAL, UUID, TIMESTAMP, PAYLOAD_FIELD, FUNCTION }
+
+    Kind kind;
+    String text;
+}
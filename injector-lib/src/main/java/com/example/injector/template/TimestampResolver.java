@@ -0,0 +1,26 @@
+package com.example.injector.template;
+
+import java.util.function.LongSupplier;
+
+final class TimestampResolver implements ValueResolver {
+    private final LongSupplier clock;
+    private final boolean binary;
+
+    TimestampResolver(LongSupplier clock, boolean binary) {
+        this.clock = clock;
+        this.binary = binary;
+    }
+
+    @Override
+    public byte[] resolve(MessageContext context) {
+        long now = context.timestamp(clock);
+        if (!binary) {
+            return Utf8.encode(now);
+        }
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[i] = (byte) (now >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.injector.template;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes dynamic header values straight into byte arrays without going through
+ * an intermediate String where the value type allows it. Public for generated
+ * channel injectors.
+ */
+public final class Utf8 {
+    public static final byte[] EMPTY = new byte[0];
+
+    private Utf8() {
+    }
+
+    public static byte[] encode(Object value) {
+        if (value == null) {
+            return EMPTY;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return encode(((Number) value).longValue());
+        }
+        return value.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] encode(long value) {
+        if (value == Long.MIN_VALUE) {
+            return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+        }
+        boolean negative = value < 0;
+        long magnitude = negative ? -value : value;
+        byte[] bytes = new byte[digits(magnitude) + (negative ? 1 : 0)];
+        int i = bytes.length;
+        do {
+            bytes[--i] = (byte) ('0' + magnitude % 10);
+            magnitude /= 10;
+        } while (magnitude > 0);
+        if (negative) {
+            bytes[0] = '-';
+        }
+        return bytes;
+    }
+
+    public static byte[] concat(byte[]... parts) {
+        int size = 0;
+        for (byte[] part : parts) {
+            size += part.length;
+        }
+        byte[] result = new byte[size];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.injector.template;
+
+import com.example.injector.id.IdGenerator;
+
+final class UuidResolver implements ValueResolver {
+    private final IdGenerator generator;
+    private final boolean binary;
+
+    UuidResolver(IdGenerator generator, boolean binary) {
+        this.generator = generator;
+        this.binary = binary;
+    }
+
+    @Override
+    public byte[] resolve(MessageContext context) {
+        return binary ? generator.nextBinary() : generator.next();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.injector.template;
+
+/**
+ * A compiled header template. Implementations are immutable and safe to share
+ * between threads; all parsing happens once when the channel is compiled.
+ * Values are produced directly as UTF-8 header bytes. Callers must treat the
+ * returned array as read-only since constant values are shared between records.
+ */
+@FunctionalInterface
+public interface ValueResolver {
+    byte[] resolve(MessageContext context);
+}
@@ -0,0 +1,124 @@
+package com.example.injector.validation;
+
+import com.example.injector.model.Payload;
+import com.example.injector.model.Property;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message's payload schema compiled for validation: the expected type and
+ * required properties of the payload and of every declared nested property.
+ * Properties the schema says nothing about are left out, so validators only
+ * walk the parts of a payload that can actually be wrong. Undeclared
+ * properties are allowed.
+ */
+public final class PayloadSchema {
+    private final String path;
+    private final SchemaType type;
+    private final List<String> required;
+    private final Map<String, PayloadSchema> properties;
+
+    private PayloadSchema(String path, SchemaType type, List<String> required, Map<String, PayloadSchema> properties) {
+        this.path = path;
+        this.type = type;
+        this.required = required;
+        this.properties = properties;
+    }
+
+    /**
+     * @return the compiled schema, or null if the payload declares nothing to check
+     * @throws IllegalArgumentException if a {@code type} is not a JSON Schema type
+     */
+    public static PayloadSchema compile(Payload payload) {
+        if (payload == null) {
+            return null;
+        }
+        return compile("", payload.getType(), payload.getRequired(), payload.getProperties());
+    }
+
+    private static PayloadSchema compile(String path, String type, List<String> required, Map<String, Property> declared) {
+        SchemaType schemaType;
+        try {
+            schemaType = SchemaType.of(type);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage() + (path.isEmpty() ? " for the payload" : " for " + path), e);
+        }
+        Map<String, PayloadSchema> properties = new LinkedHashMap<>();
+        if (declared != null) {
+            declared.forEach((name, property) -> {
+                if (property != null) {
+                    PayloadSchema child = compile(path(path, name), property.getType(), property.getRequired(),
+                            property.getProperties());
+                    if (child != null) {
+                        properties.put(name, child);
+                    }
+                }
+            });
+        }
+        if (schemaType == null && (required == null || required.isEmpty()) && properties.isEmpty()) {
+            return null;
+        }
+        return new PayloadSchema(path, schemaType, required == null ? List.of() : List.copyOf(required), Collections.unmodifiableMap(properties));
+    }
+
+    /**
+     * Dotted path of this property, empty for the payload itself.
+     */
+    public String path() {
+        return path;
+    }
+
+    public String path(String property) {
+        return path(path, property);
+    }
+
+    /**
+     * The expected type, or null if any type is allowed.
+     */
+    public SchemaType type() {
+        return type;
+    }
+
+    public List<String> required() {
+        return required;
+    }
+
+    /**
+     * Nested properties with something to check.
+     */
+    public Map<String, PayloadSchema> properties() {
+        return properties;
+    }
+
+    /**
+     * Validates a Map payload, or any value of one, against this schema.
+     *
+     * @throws PayloadValidationException on the first violation
+     */
+    public void validate(Object value) {
+        if (type != null && !type.matches(value)) {
+            throw PayloadValidationException.typeMismatch(path, type, SchemaType.describe(value));
+        }
+        if (!(value instanceof Map)) {
+            return;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
+        for (String name : required) {
+            if (!map.containsKey(name)) {
+                throw PayloadValidationException.missing(path(name));
+            }
+        }
+        for (Map.Entry<String, PayloadSchema> property : properties.entrySet()) {
+            if (map.containsKey(property.getKey())) {
+                property.getValue().validate(map.get(property.getKey()));
+            }
+        }
+    }
+
+    private static String path(String parent, String property) {
+        return parent.isEmpty() ? property : parent + "." + property;
+    }
+}
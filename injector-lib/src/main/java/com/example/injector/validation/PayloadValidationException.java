@@ -0,0 +1,61 @@
+package com.example.injector.validation;
+
+/**
+ * A payload does not match its channel's message schema. Thrown before the
+ * record is handed to the producer.
+ */
+public class PayloadValidationException extends RuntimeException {
+    private final String topic;
+    private final String path;
+
+    /**
+     * @param path dotted path of the offending property, empty for the payload itself
+     */
+    public PayloadValidationException(String path, String reason) {
+        this(null, path, reason);
+    }
+
+    private PayloadValidationException(String topic, String path, String reason) {
+        super(reason);
+        this.topic = topic;
+        this.path = path;
+    }
+
+    public static PayloadValidationException missing(String path) {
+        return new PayloadValidationException(path, "is required");
+    }
+
+    /**
+     * @param actual what the payload holds instead, e.g. {@code integer} or {@code null}
+     */
+    public static PayloadValidationException typeMismatch(String path, SchemaType expected, String actual) {
+        return new PayloadValidationException(path, "must be " + expected + ", got " + actual);
+    }
+
+    /**
+     * The same violation, attributed to the topic the record was sent to.
+     */
+    public PayloadValidationException forTopic(String topic) {
+        PayloadValidationException attributed = new PayloadValidationException(topic, path, getReason());
+        attributed.setStackTrace(getStackTrace());
+        return attributed;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getReason() {
+        return super.getMessage();
+    }
+
+    @Override
+    public String getMessage() {
+        String where = path.isEmpty() ? "payload" : path;
+        return (topic == null ? "Invalid payload: " : "Invalid payload for topic " + topic + ": ") + where + " " + getReason();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.injector.validation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JSON Schema {@code type} of a payload property.
+ */
+public enum SchemaType {
+    STRING,
+    INTEGER,
+    NUMBER,
+    BOOLEAN,
+    OBJECT,
+    ARRAY,
+    NULL;
+
+    /**
+     * @param type the schema's {@code type}, may be null for "any"
+     * @throws IllegalArgumentException for anything but the seven JSON Schema types
+     */
+    public static SchemaType of(String type) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown schema type " + type);
+        }
+    }
+
+    /**
+     * Checks a value of a Map payload, as bound by Jackson or built by hand.
+     */
+    public boolean matches(Object value) {
+        switch (this) {
+            case STRING:
+                return value instanceof String;
+            case INTEGER:
+                return value instanceof Integer || value instanceof Long || value instanceof Short
+                        || value instanceof Byte || value instanceof BigInteger;
+            case NUMBER:
+                return value instanceof Number;
+            case BOOLEAN:
+                return value instanceof Boolean;
+            case OBJECT:
+                return value instanceof Map;
+            case ARRAY:
+                return value instanceof List || value instanceof Object[];
+            default:
+                return value == null;
+        }
+    }
+
+    /**
+     * What a JSON value of the given kind is called in error messages.
+     */
+    static String describe(Object value) {
+        if (value == null) {
+            return "null";
+        } else if (value instanceof String) {
+            return "string";
+        } else if (value instanceof Float || value instanceof Double || value instanceof BigDecimal) {
+            return "number";
+        } else if (value instanceof Number) {
+            return "integer";
+        } else if (value instanceof Boolean) {
+            return "boolean";
+        } else if (value instanceof Map) {
+            return "object";
+        } else if (value instanceof List || value instanceof Object[]) {
+            return "array";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.injector.bulk;
+
+import com.example.injector.service.HeaderInjector;
+import com.example.injector.service.HeaderInjectorOptions;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkInjectorTest {
+    private static final String SPEC = """
+            asyncapi: 2.6.0
+            info: {title: Orders, version: '1'}
+            channels:
+              orders:
+                x-key: ${message.payload.orderId}
+                x-headers:
+                  orderId: ${message.payload.orderId}
+            """;
+
+    private final HeaderInjector headerInjector = injector();
+
+    @Test
+    void emitsRecordsInInputOrder() {
+        List<ProducerRecord<String, String>> emitted = new ArrayList<>();
+        try (BulkInjector bulk = bulk(4, 7, 0)) {
+            assertEquals(10_000, bulk.inject(records(10_000), emitted::add));
+        }
+
+        assertEquals(10_000, emitted.size());
+        for (int i = 0; i < emitted.size(); i++) {
+            ProducerRecord<String, String> record = emitted.get(i);
+            assertEquals("o-" + i, record.key());
+            assertEquals("o-" + i, new String(record.headers().lastHeader("orderId").value(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void stopsReadingWhileTheSinkBlocks() throws Exception {
+        AtomicInteger read = new AtomicInteger();
+        Iterator<ProducerRecord<String, String>> input = counting(records(1_000), read);
+        CountDownLatch release = new CountDownLatch(1);
+        try (BulkInjector bulk = bulk(2, 10, 2)) {
+            CompletableFuture<Long> done = CompletableFuture.supplyAsync(() -> bulk.inject(input, record -> await(release)));
+
+            while (read.get() < 20) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(100);
+            assertEquals(20, read.get(), "records read while the first chunk is stuck in the sink");
+
+            release.countDown();
+            assertEquals(1_000, done.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void rethrowsTheFirstFailureAfterEmittingTheChunksBeforeIt() {
+        List<ProducerRecord<String, String>> records = new ArrayList<>();
+        records(50).forEachRemaining(records::add);
+        records.set(25, new ProducerRecord<>("orders", "{not json"));
+        List<ProducerRecord<String, String>> emitted = new ArrayList<>();
+
+        try (BulkInjector bulk = bulk(2, 10, 1)) {
+            assertThrows(UncheckedIOException.class, () -> bulk.inject(records.iterator(), emitted::add));
+        }
+
+        assertEquals(20, emitted.size());
+        assertEquals("o-19", emitted.get(19).key());
+    }
+
+    @Test
+    void sendsEveryRecordAndFlushes() {
+        MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+
+        BulkResult result;
+        try (BulkInjector bulk = bulk(2, 16, 0)) {
+            result = bulk.send(records(100), producer);
+        }
+
+        assertEquals(100, result.getSent());
+        assertEquals(0, result.getFailed());
+        assertNull(result.getFirstFailure());
+        assertEquals(100, producer.history().size());
+        assertEquals("o-99", producer.history().get(99).key());
+        assertTrue(producer.flushed());
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BulkInjector(headerInjector, BulkInjectorOptions.builder().chunkSize(0).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BulkInjector(headerInjector, BulkInjectorOptions.builder().parallelism(0).build()));
+    }
+
+    private BulkInjector bulk(int parallelism, int chunkSize, int maxChunksInFlight) {
+        return new BulkInjector(headerInjector, BulkInjectorOptions.builder()
+                .parallelism(parallelism)
+                .chunkSize(chunkSize)
+                .maxChunksInFlight(maxChunksInFlight)
+                .build());
+    }
+
+    private static Iterator<ProducerRecord<String, String>> records(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ProducerRecord<String, String>("orders", "{\"orderId\":\"o-" + i + "\"}"))
+                .iterator();
+    }
+
+    private static <T> Iterator<T> counting(Iterator<T> delegate, AtomicInteger read) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public T next() {
+                read.incrementAndGet();
+                return delegate.next();
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HeaderInjector injector() {
+        try {
+            return new HeaderInjector(new ByteArrayInputStream(SPEC.getBytes(StandardCharsets.UTF_8)),
+                    HeaderInjectorOptions.defaults());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.injector.codec;
+
+import com.example.injector.function.FunctionCall;
+import com.example.injector.function.HeaderFunction;
+import com.example.injector.function.HeaderFunctions;
+import com.example.injector.id.IdStrategy;
+import com.example.injector.model.AsyncApiSpec;
+import com.example.injector.service.SpecRegistry;
+import com.example.injector.template.TemplateCompiler;
+import com.example.injector.template.ValueResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeaderBudgetTest {
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory());
+
+    @Test
+    void boundsIdsAndTimestampsByEncoding() throws IOException {
+        String headers = "{ id: '${uuid()}', messageId: '${messageId()}', at: '${timestamp()}' }";
+
+        // keys 2 + 9 + 2, values 36 + 36 + 20
+        assertEquals(105, maxBytes(channel("x-headers: " + headers)));
+        // values 16 + 16 + 8
+        assertEquals(53, maxBytes(channel("x-header-encoding: binary\n    x-headers: " + headers)));
+        // Only a whole-template ID is binary
+        assertEquals(2 + 39, maxBytes(channel("x-header-encoding: binary\n    x-headers: { id: 'id-${messageId()}' }")));
+    }
+
+    @Test
+    void boundsFunctionCalls() throws IOException {
+        assertEquals(1 + 64, maxBytes(channel("x-headers: { h: '${hash(lower(message.payload.code))}' }")));
+        assertEquals(1 + 32, maxBytes(channel("x-headers: { h: '${hash(message.payload.note, ''MD5'')}' }")));
+        assertEquals(1 + 3 * 16, maxBytes(channel("x-headers: { u: '${upper(message.payload.code)}' }")));
+        assertEquals(1 + 20, maxBytes(channel("x-headers: { t: '${now()}' }")));
+        assertEquals(1 + 30, maxBytes(channel("x-headers: { t: '${now(''iso'')}' }")));
+        // 'local' + '/' + upper(code) + 36 character id
+        assertEquals(1 + 5 + 1 + 48 + 36, maxBytes(channel(
+                "x-headers: { o: '${concat(env(''HEADER_BUDGET_TEST_UNSET'', ''local''), ''/'', upper(message.payload.code), causationId())}' }")));
+    }
+
+    @Test
+    void measuresConstantCallsByTheirValue() throws IOException {
+        assertEquals(1 + 5, maxBytes(channel("x-headers: { c: '${lower(''ABCDE'')}' }")));
+    }
+
+    @Test
+    void rejectsFunctionsWithoutABound() throws IOException {
+        HeaderFunction unbounded = new HeaderFunction() {
+            @Override
+            public String name() {
+                return "lookup";
+            }
+
+            @Override
+            public ValueResolver compile(FunctionCall call) {
+                return context -> new byte[0];
+            }
+        };
+        TemplateCompiler compiler = new TemplateCompiler(IdStrategy.RANDOM.create(), System::currentTimeMillis,
+                HeaderFunctions.load(List.of(unbounded)));
+
+        SpecRegistry registry = channel("x-header-budget: 100\n    x-headers: { l: '${lookup(message.payload.code)}' }");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> HeaderBudget.check("c", registry.getChannels().get("c"), registry.messageOf("c"), compiler));
+        assertEquals("Channel c declares x-header-budget but lookup() has no bounded size", e.getMessage());
+    }
+
+    @Test
+    void rejectsUnboundedPayloadFields() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> maxBytes(channel("x-headers: { n: '${lower(message.payload.name)}' }")));
+        assertTrue(e.getMessage().contains("name has no maxLength"), e.getMessage());
+    }
+
+    @Test
+    void allowsFourBytesPerCharacterOfMaxLength() throws IOException {
+        assertEquals(1 + 16, maxBytes(channel("x-headers: { c: '${message.payload.code}' }")));
+        assertEquals(1 + 36, maxBytes(channel("x-headers: { u: '${message.payload.userId}' }")));
+    }
+
+    @Test
+    void checksPackedHeadersAgainstTheBudget() throws IOException {
+        SpecRegistry packed = channel("x-header-packed: true\n    x-header-budget: 30\n    x-headers: { a: '${message.payload.code}', b: yes }");
+        // "hdr" + 6 byte prefix, then 1 + 16 and 1 + 3 for the values
+        assertEquals(3 + 6 + 17 + 4, maxBytes(packed));
+        HeaderBudget.check("c", packed.getChannels().get("c"), packed.messageOf("c"), new TemplateCompiler());
+    }
+
+    private static int maxBytes(SpecRegistry registry) {
+        return HeaderBudget.maxBytes(registry.getChannels().get("c"), registry.messageOf("c"), new TemplateCompiler());
+    }
+
+    /**
+     * A spec with one channel {@code c} whose message declares {@code code}
+     * ({@code maxLength: 4}), {@code note} ({@code maxLength: 100}), {@code userId}
+     * ({@code format: uuid}) and an unbounded {@code name}.
+     */
+    private static SpecRegistry channel(String settings) throws IOException {
+        String spec = """
+                asyncapi: 2.6.0
+                info: {title: Budget, version: '1'}
+                channels:
+                  c:
+                    publish:
+                      message:
+                        $ref: '#/components/messages/M'
+                    %s
+                components:
+                  messages:
+                    M:
+                      payload:
+                        type: object
+                        properties:
+                          code: { type: string, maxLength: 4 }
+                          note: { type: string, maxLength: 100 }
+                          name: { type: string }
+                          userId: { type: string, format: uuid }
+                """.formatted(settings);
+        return SpecRegistry.merge(List.of(YAML.readValue(spec, AsyncApiSpec.class)));
+    }
+}
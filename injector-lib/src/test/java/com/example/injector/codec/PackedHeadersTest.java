@@ -0,0 +1,191 @@
+package com.example.injector.codec;
+
+import com.example.injector.id.IdStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedHeadersTest {
+    private static final List<String> KEYS = List.of("messageId", "timestamp", "source", "payload");
+    private static final int KEY_HASH = PackedHeaders.keyHash(KEYS);
+
+    @Test
+    void roundTripsValuesOfEveryVarintWidth() {
+        byte[][] values = {
+                text("7f9c2b1e-0d3a-4c55-9f8e-2a6b1c0d9e7f"),
+                new byte[0],
+                text("a".repeat(127)),
+                filled(300_000, (byte) 0x5A),
+        };
+        byte[] packed = PackedHeaders.pack(values, KEY_HASH, HeaderEncoding.TEXT);
+
+        byte[][] unpacked = HeaderDecoder.unpack(packed, KEYS);
+        assertEquals(values.length, unpacked.length);
+        for (int i = 0; i < values.length; i++) {
+            assertArrayEquals(values[i], unpacked[i], "value " + i);
+        }
+        assertFalse(HeaderDecoder.isBinary(packed));
+    }
+
+    @Test
+    void locatesValuesInPlace() {
+        byte[][] values = {text("one"), text("two-two"), new byte[0], text("four")};
+        byte[] packed = PackedHeaders.pack(values, KEY_HASH, HeaderEncoding.TEXT);
+
+        int[] bounds = HeaderDecoder.locate(packed, KEYS.size(), KEY_HASH);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(new String(values[i], StandardCharsets.UTF_8),
+                    HeaderDecoder.text(packed, bounds[2 * i], bounds[2 * i + 1]));
+        }
+        assertEquals(packed.length, bounds[6] + bounds[7]);
+    }
+
+    @Test
+    void roundTripsBinaryIdsAndTimestamps() {
+        UUID id = UUID.fromString("7f9c2b1e-0d3a-4c55-9f8e-2a6b1c0d9e7f");
+        long timestamp = 1_718_000_000_123L;
+        byte[][] values = {binary(id), binary(timestamp), text("orders"), text("{}")};
+        byte[] packed = PackedHeaders.pack(values, KEY_HASH, HeaderEncoding.BINARY);
+
+        assertTrue(HeaderDecoder.isBinary(packed));
+        int[] bounds = HeaderDecoder.locate(packed, KEYS.size(), KEY_HASH);
+        HeaderEncoding encoding = HeaderDecoder.encoding(packed);
+        assertEquals(id, HeaderDecoder.uuid(packed, bounds[0], bounds[1], encoding));
+        assertEquals(timestamp, HeaderDecoder.timestamp(packed, bounds[2], bounds[3], encoding));
+    }
+
+    @Test
+    void decodesTextIdsAndTimestamps() {
+        UUID id = UUID.randomUUID();
+        assertEquals(id, HeaderDecoder.uuid(text(id.toString()), HeaderEncoding.TEXT));
+        assertEquals(1_718_000_000_123L, HeaderDecoder.timestamp(text("1718000000123"), HeaderEncoding.TEXT));
+        assertThrows(IllegalArgumentException.class,
+                () -> HeaderDecoder.uuid(text("01HZX3J5Q8M9K2N4P6R7S8T9V0"), HeaderEncoding.TEXT));
+    }
+
+    @Test
+    void decodesByTheNamedEncodingNotTheLength() {
+        // eight digits would pass for a binary timestamp if the length decided
+        assertEquals(12_345_678L, HeaderDecoder.timestamp(text("12345678"), HeaderEncoding.TEXT));
+        assertThrows(IllegalArgumentException.class, () -> HeaderDecoder.timestamp(text("1718000000123"), HeaderEncoding.BINARY));
+        assertThrows(IllegalArgumentException.class, () -> HeaderDecoder.uuid(text("0123456789abcdef"), HeaderEncoding.TEXT));
+    }
+
+    @Test
+    void decodesUlidsByStrategy() {
+        String ulid = "01HZX3J5Q8M9K2N4P6R7S8T9V0";
+        byte[] binary = IdStrategy.ULID.binary(text(ulid));
+
+        assertEquals(16, binary.length);
+        assertEquals(ulid, HeaderDecoder.id(binary, 0, binary.length, HeaderEncoding.BINARY, IdStrategy.ULID));
+        assertEquals(ulid, HeaderDecoder.id(text(ulid), 0, ulid.length(), HeaderEncoding.TEXT, IdStrategy.ULID));
+        assertThrows(IllegalArgumentException.class,
+                () -> HeaderDecoder.id(text(ulid), 0, ulid.length(), HeaderEncoding.TEXT, IdStrategy.RANDOM));
+    }
+
+    @Test
+    void rejectsOtherVersions() {
+        byte[] packed = PackedHeaders.pack(values(), KEY_HASH, HeaderEncoding.TEXT);
+        packed[0] = PackedHeaders.VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> HeaderDecoder.unpack(packed, KEYS));
+    }
+
+    @Test
+    void rejectsOtherKeyLayouts() {
+        byte[] packed = PackedHeaders.pack(values(), KEY_HASH, HeaderEncoding.TEXT);
+        List<String> reordered = List.of("timestamp", "messageId", "source", "payload");
+        assertThrows(IllegalArgumentException.class, () -> HeaderDecoder.unpack(packed, reordered));
+    }
+
+    @Test
+    void rejectsEveryTruncation() {
+        byte[] packed = PackedHeaders.pack(values(), KEY_HASH, HeaderEncoding.TEXT);
+        for (int length = 0; length < packed.length; length++) {
+            byte[] truncated = Arrays.copyOf(packed, length);
+            assertThrows(IllegalArgumentException.class, () -> HeaderDecoder.unpack(truncated, KEYS),
+                    "truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void rejectsVarintsLongerThanFiveBytes() {
+        byte[] packed = withLength((byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x01);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> HeaderDecoder.locate(packed, 1, KEY_HASH));
+        assertTrue(e.getMessage().contains("Malformed"), e.getMessage());
+    }
+
+    @Test
+    void rejectsNegativeLengths() {
+        // 0xFFFFFFFF, i.e. -1 once it overflows into the sign bit
+        byte[] packed = withLength((byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x0F);
+        assertThrows(IllegalArgumentException.class, () -> HeaderDecoder.locate(packed, 1, KEY_HASH));
+    }
+
+    @Test
+    void rejectsLengthsPastTheEnd() {
+        byte[] packed = withLength((byte) 0x05, (byte) 'a', (byte) 'b');
+        assertThrows(IllegalArgumentException.class, () -> HeaderDecoder.locate(packed, 1, KEY_HASH));
+    }
+
+    @Test
+    void varintSizeMatchesPackedLength() {
+        assertEquals(1, PackedHeaders.varintSize(0));
+        assertEquals(1, PackedHeaders.varintSize(127));
+        assertEquals(2, PackedHeaders.varintSize(128));
+        assertEquals(3, PackedHeaders.varintSize(300_000));
+        assertEquals(5, PackedHeaders.varintSize(Integer.MAX_VALUE));
+        byte[] packed = PackedHeaders.pack(new byte[][]{new byte[128]}, KEY_HASH, HeaderEncoding.TEXT);
+        assertEquals(PackedHeaders.PREFIX_BYTES + 2 + 128, packed.length);
+    }
+
+    private static byte[][] values() {
+        return new byte[][]{text("id"), text("1718000000123"), text("orders"), text("{\"a\":1}")};
+    }
+
+    /**
+     * A packed header for one key whose value starts with the given bytes.
+     */
+    private static byte[] withLength(byte... rest) {
+        byte[] prefix = PackedHeaders.pack(new byte[0][], KEY_HASH, HeaderEncoding.TEXT);
+        byte[] packed = Arrays.copyOf(prefix, prefix.length + rest.length);
+        System.arraycopy(rest, 0, packed, prefix.length, rest.length);
+        return packed;
+    }
+
+    private static byte[] text(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] filled(int length, byte value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+
+    private static byte[] binary(UUID id) {
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (id.getMostSignificantBits() >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (id.getLeastSignificantBits() >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+
+    private static byte[] binary(long value) {
+        byte[] bytes = new byte[8];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (value >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.injector.consumer;
+
+import com.example.injector.id.IdStrategy;
+import com.example.injector.service.HeaderInjector;
+import com.example.injector.service.HeaderInjectorOptions;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeaderReaderTest {
+    private static final String SPEC = """
+            asyncapi: 2.6.0
+            info: {title: Orders, version: '1'}
+            channels:
+              orders.text:
+                x-headers:
+                  id: ${uuid()}
+                  correlation: ${correlationId()}
+                  at: ${timestamp()}
+                  source: web-${uuid()}
+              orders.binary:
+                x-header-encoding: binary
+                x-headers:
+                  id: ${uuid()}
+                  correlation: ${correlationId()}
+                  at: ${timestamp()}
+                  source: web-${uuid()}
+              orders.packed:
+                x-header-encoding: binary
+                x-header-packed: true
+                x-headers:
+                  id: ${uuid()}
+                  correlation: ${correlationId()}
+                  at: ${timestamp()}
+                  source: web-${uuid()}
+            """;
+
+    @Test
+    void typesHeadersByTheirTemplate() throws IOException {
+        ChannelHeaders channel = reader(HeaderInjectorOptions.defaults()).channel("orders.binary");
+
+        assertEquals(List.of("id", "correlation", "at", "source"), channel.keys());
+        assertEquals(HeaderType.ID, channel.type(0));
+        assertEquals(HeaderType.ID, channel.type(1));
+        assertEquals(HeaderType.TIMESTAMP, channel.type(2));
+        assertEquals(HeaderType.TEXT, channel.type(3));
+        assertEquals(-1, channel.indexOf("missing"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"orders.text", "orders.binary", "orders.packed"})
+    void decodesEveryEncodingAlike(String topic) throws IOException {
+        HeaderInjectorOptions options = HeaderInjectorOptions.defaults();
+        HeaderView view = inject(options, topic);
+
+        UUID id = view.uuid("id");
+        assertEquals(id, view.value("id"));
+        assertEquals(id.toString(), view.text("id"));
+        assertEquals(view.uuid("correlation"), UUID.fromString(view.text("correlation")));
+        long at = view.timestamp("at");
+        assertEquals(at, view.value("at"));
+        assertEquals(Long.toString(at), view.text("at"));
+        assertTrue(view.text("source").startsWith("web-"));
+        assertEquals(view.text("source"), view.value("source"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"orders.text", "orders.binary", "orders.packed"})
+    void decodesUlidsAsText(String topic) throws IOException {
+        HeaderInjectorOptions options = HeaderInjectorOptions.builder().idStrategy(IdStrategy.ULID).build();
+        HeaderView view = inject(options, topic);
+
+        String id = view.text("id");
+        assertEquals(26, id.length());
+        assertEquals(id, view.value("id"));
+        assertEquals(view.text("correlation"), view.value("correlation"));
+        assertEquals(26, view.text("correlation").length());
+        assertThrows(IllegalArgumentException.class, () -> view.uuid("id"));
+    }
+
+    @Test
+    void decodesShortTextTimestampsAsText() throws IOException {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("at", "12345678".getBytes(StandardCharsets.UTF_8));
+
+        HeaderView view = reader(HeaderInjectorOptions.defaults()).read("orders.text", headers);
+
+        assertEquals(12_345_678L, view.timestamp("at"));
+        assertEquals(12_345_678L, view.value("at"));
+    }
+
+    @Test
+    void readsNothingForUndeclaredTopicsOrMissingHeaders() throws IOException {
+        HeaderReader reader = reader(HeaderInjectorOptions.defaults());
+        HeaderView view = reader.read("orders.text", new RecordHeaders());
+
+        assertNull(reader.read("payments", new RecordHeaders()));
+        assertFalse(view.contains("id"));
+        assertNull(view.value("id"));
+        assertThrows(IllegalArgumentException.class, () -> view.text("missing"));
+    }
+
+    private static HeaderView inject(HeaderInjectorOptions options, String topic) throws IOException {
+        HeaderInjector injector = new HeaderInjector(stream(), options);
+        ProducerRecord<String, String> record = injector.injectHeaders(new ProducerRecord<>(topic, "{}"));
+        return HeaderReader.of(injector.getRegistry(), options).read(record.topic(), record.headers());
+    }
+
+    private static HeaderReader reader(HeaderInjectorOptions options) throws IOException {
+        return HeaderReader.load(List.of(stream()), options);
+    }
+
+    private static ByteArrayInputStream stream() {
+        return new ByteArrayInputStream(SPEC.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.injector.dedup;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeaderCacheTest {
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void returnsTheHeadersOfTheFirstAttempt() {
+        HeaderCache cache = cache(10, 1);
+        CachedHeaders first = headers("first");
+
+        assertNull(cache.get("orders", Fingerprint.of("o-1")));
+        cache.put("orders", Fingerprint.of("o-1"), first);
+        cache.put("orders", Fingerprint.of("o-1"), headers("second"));
+
+        assertSame(first, cache.get("orders", Fingerprint.of("o-1")));
+        assertNull(cache.get("payments", Fingerprint.of("o-1")));
+        assertEquals(new CacheStats(1, 2, 0, 1), cache.stats());
+    }
+
+    @Test
+    void expiresEntriesAfterTheTtl() {
+        HeaderCache cache = cache(10, 1);
+        cache.put("orders", Fingerprint.of("o-1"), headers("first"));
+
+        now.addAndGet(TTL.toNanos() - 1);
+        assertEquals("first", value(cache.get("orders", Fingerprint.of("o-1"))));
+
+        now.incrementAndGet();
+        assertNull(cache.get("orders", Fingerprint.of("o-1")));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void replacesExpiredEntries() {
+        HeaderCache cache = cache(10, 1);
+        cache.put("orders", Fingerprint.of("o-1"), headers("first"));
+
+        now.addAndGet(TTL.toNanos());
+        cache.put("orders", Fingerprint.of("o-1"), headers("second"));
+
+        assertEquals("second", value(cache.get("orders", Fingerprint.of("o-1"))));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        HeaderCache cache = cache(2, 1);
+        cache.put("orders", Fingerprint.of("a"), headers("a"));
+        cache.put("orders", Fingerprint.of("b"), headers("b"));
+        cache.get("orders", Fingerprint.of("a"));
+
+        cache.put("orders", Fingerprint.of("c"), headers("c"));
+
+        assertNull(cache.get("orders", Fingerprint.of("b")));
+        assertEquals("a", value(cache.get("orders", Fingerprint.of("a"))));
+        assertEquals("c", value(cache.get("orders", Fingerprint.of("c"))));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void boundsEveryStripe() {
+        HeaderCache cache = cache(64, 4);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("orders", Fingerprint.of("o-" + i), headers("o-" + i));
+        }
+
+        assertTrue(cache.size() <= 64, "size " + cache.size());
+        assertEquals(1_000 - cache.size(), cache.stats().getEvictions());
+        assertEquals("o-999", value(cache.get("orders", Fingerprint.of("o-999"))));
+    }
+
+    @Test
+    void staysConsistentUnderConcurrentUse() throws Exception {
+        HeaderCache cache = new HeaderCache(256, TTL, 8, System::nanoTime);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        Fingerprint fingerprint = Fingerprint.of("o-" + (i % 512));
+                        CachedHeaders cached = cache.get("orders", fingerprint);
+                        if (cached == null) {
+                            cache.put("orders", fingerprint, headers("o-" + (i % 512)));
+                        } else {
+                            assertEquals("o-" + (i % 512), value(cached));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CacheStats stats = cache.stats();
+        assertEquals(80_000, stats.getHits() + stats.getMisses());
+        assertTrue(stats.getSize() <= 256, "size " + stats.getSize());
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new HeaderCache(0, TTL));
+        assertThrows(IllegalArgumentException.class, () -> new HeaderCache(10, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new HeaderCache(10, TTL, 0, System::nanoTime));
+    }
+
+    private HeaderCache cache(int maxEntries, int stripes) {
+        return new HeaderCache(maxEntries, TTL, stripes, now::get);
+    }
+
+    private static CachedHeaders headers(String value) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("value", value.getBytes(StandardCharsets.UTF_8));
+        return CachedHeaders.capture(headers, 1, null, 0);
+    }
+
+    private static String value(CachedHeaders cached) {
+        RecordHeaders headers = new RecordHeaders();
+        cached.addTo(headers);
+        return new String(headers.lastHeader("value").value(), StandardCharsets.UTF_8);
+    }
+}
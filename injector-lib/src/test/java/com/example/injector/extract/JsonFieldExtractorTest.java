@@ -0,0 +1,180 @@
+package com.example.injector.extract;
+
+import com.example.injector.model.Payload;
+import com.example.injector.template.MessageContext;
+import com.example.injector.validation.PayloadSchema;
+import com.example.injector.validation.PayloadValidationException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonFieldExtractorTest {
+    private static final String SCHEMA = """
+            type: object
+            required: [orderId, customer]
+            properties:
+              orderId: { type: string }
+              quantity: { type: integer }
+              price: { type: number }
+              gift: { type: boolean }
+              tags: { type: array }
+              customer:
+                type: object
+                required: [id]
+                properties:
+                  id: { type: integer }
+                  address:
+                    type: object
+                    required: [country]
+            """;
+    private static final List<String> FIELDS = List.of("orderId", "customer.id", "quantity");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory());
+
+    @Test
+    void extractsScalarFields() throws IOException {
+        MessageContext context = extract(new JsonFieldExtractor(List.of("orderId", "customer.id", "gift", "tags", "missing")),
+                "{\"orderId\":\"o-1\",\"customer\":{\"id\":42},\"gift\":true,\"tags\":[1,2]}");
+
+        assertEquals("o-1", context.field(0));
+        assertEquals(42L, context.field(1));
+        assertEquals(Boolean.TRUE, context.field(2));
+        assertNull(context.field(3));
+        assertNull(context.field(4));
+    }
+
+    @Test
+    void keepsBigIntegersAsText() throws IOException {
+        MessageContext context = extract(new JsonFieldExtractor(List.of("quantity")),
+                "{\"quantity\":123456789012345678901234567890}");
+
+        assertEquals("123456789012345678901234567890", context.field(0));
+    }
+
+    @Test
+    void leavesNullFieldsUnset() throws IOException {
+        MessageContext context = extract(new JsonFieldExtractor(List.of("orderId")), "{\"orderId\":null}");
+
+        assertNull(context.field(0));
+    }
+
+    @Test
+    void stopsOnceEveryFieldIsFoundUnlessValidating() throws IOException {
+        String truncated = "{\"orderId\":\"o-1\",\"customer\":{\"id\":";
+
+        MessageContext context = extract(new JsonFieldExtractor(List.of("orderId")), truncated);
+        assertEquals("o-1", context.field(0));
+        assertThrows(IOException.class, () -> extract(extractor(), truncated));
+    }
+
+    @Test
+    void validatesAfterEveryFieldIsFound() throws IOException {
+        JsonFieldExtractor extractor = new JsonFieldExtractor(List.of("orderId"), schema());
+
+        PayloadValidationException e = assertThrows(PayloadValidationException.class,
+                () -> extract(extractor, "{\"orderId\":\"o-1\",\"customer\":{\"id\":\"42\"}}"));
+        assertEquals("customer.id", e.getPath());
+    }
+
+    @Test
+    void tracksRequiredPropertiesPerObject() {
+        PayloadValidationException e = assertThrows(PayloadValidationException.class,
+                () -> extract(extractor(), "{\"customer\":{\"id\":1,\"orderId\":\"o-1\"},\"id\":7}"));
+        assertEquals("orderId", e.getPath());
+        assertEquals("is required", e.getReason());
+    }
+
+    @Test
+    void extractsWhileValidating() throws IOException {
+        MessageContext context = extract(extractor(),
+                "{\"quantity\":123456789012345678901234567890,\"customer\":{\"id\":42,\"extra\":{\"x\":[1]}},"
+                        + "\"orderId\":\"o-1\",\"price\":9.5,\"gift\":false,\"tags\":[]}");
+
+        assertEquals("o-1", context.field(0));
+        assertEquals(42L, context.field(1));
+        assertEquals("123456789012345678901234567890", context.field(2));
+    }
+
+    /**
+     * Every payload breaks exactly one rule, so both validators must stop at the same one.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "[]",
+            "\"order\"",
+            "{\"customer\":{\"id\":1}}",
+            "{\"orderId\":\"o-1\"}",
+            "{\"orderId\":null,\"customer\":{\"id\":1}}",
+            "{\"orderId\":7,\"customer\":{\"id\":1}}",
+            "{\"orderId\":\"o-1\",\"customer\":{}}",
+            "{\"orderId\":\"o-1\",\"customer\":{\"id\":1.5}}",
+            "{\"orderId\":\"o-1\",\"customer\":{\"id\":null}}",
+            "{\"orderId\":\"o-1\",\"customer\":[1]}",
+            "{\"orderId\":\"o-1\",\"customer\":{\"id\":1,\"address\":{}}}",
+            "{\"orderId\":\"o-1\",\"customer\":{\"id\":1,\"address\":\"Main St\"}}",
+            "{\"orderId\":\"o-1\",\"customer\":{\"id\":1},\"quantity\":\"3\"}",
+            "{\"orderId\":\"o-1\",\"customer\":{\"id\":1},\"price\":\"9.5\"}",
+            "{\"orderId\":\"o-1\",\"customer\":{\"id\":1},\"gift\":0}",
+            "{\"orderId\":\"o-1\",\"customer\":{\"id\":1},\"tags\":{}}",
+    })
+    void streamingAndMapValidationAgree(String json) throws IOException {
+        PayloadValidationException expected = assertThrows(PayloadValidationException.class,
+                () -> schema().validate(JSON.readValue(json, Object.class)));
+        JsonFieldExtractor extractor = extractor();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+        assertSameViolation(expected, () -> extractor.extract(json, new MessageContext(FIELDS.size())));
+        assertSameViolation(expected, () -> extractor.extract(bytes, 0, bytes.length, new MessageContext(FIELDS.size())));
+        assertSameViolation(expected, () -> extractor.extract(direct, new MessageContext(FIELDS.size())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"orderId\":\"o-1\",\"customer\":{\"id\":1}}",
+            "{\"orderId\":\"\",\"customer\":{\"id\":123456789012345678901234567890,\"address\":{\"country\":null}},"
+                    + "\"price\":1,\"unknown\":{\"orderId\":1}}",
+    })
+    void streamingAndMapValidationAcceptTheSamePayloads(String json) throws IOException {
+        Map<String, Object> map = JSON.readValue(json, new TypeReference<>() {
+        });
+        assertDoesNotThrow(() -> schema().validate(map));
+        assertDoesNotThrow(() -> extract(extractor(), json));
+    }
+
+    private static void assertSameViolation(PayloadValidationException expected, Executable streaming) {
+        PayloadValidationException actual = assertThrows(PayloadValidationException.class, streaming);
+        assertEquals(expected.getPath(), actual.getPath());
+        assertEquals(expected.getReason(), actual.getReason());
+    }
+
+    private static JsonFieldExtractor extractor() throws IOException {
+        return new JsonFieldExtractor(FIELDS, schema());
+    }
+
+    private static PayloadSchema schema() throws IOException {
+        return PayloadSchema.compile(YAML.readValue(SCHEMA, Payload.class));
+    }
+
+    private static MessageContext extract(JsonFieldExtractor extractor, String json) throws IOException {
+        MessageContext context = new MessageContext(FIELDS.size() + 2);
+        extractor.extract(json, context);
+        return context;
+    }
+}
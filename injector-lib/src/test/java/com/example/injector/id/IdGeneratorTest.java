@@ -0,0 +1,142 @@
+package com.example.injector.id;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdGeneratorTest {
+    private static final int IDS = 10_000;
+
+    @ParameterizedTest
+    @EnumSource(value = IdStrategy.class, names = {"RANDOM", "THREAD_LOCAL_RANDOM"})
+    void generatesVersion4Uuids(IdStrategy strategy) {
+        UUID id = UUID.fromString(text(strategy.create().next()));
+
+        assertEquals(4, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void generatesTimeOrderedVersion7Uuids() throws InterruptedException {
+        IdGenerator generator = IdStrategy.UUID_V7.create();
+        long before = System.currentTimeMillis();
+        UUID first = UUID.fromString(text(generator.next()));
+        Thread.sleep(2);
+        UUID second = UUID.fromString(text(generator.next()));
+
+        assertEquals(7, first.version());
+        assertEquals(2, first.variant());
+        long millis = first.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis(), "timestamp " + millis);
+        assertTrue(text(first).compareTo(text(second)) < 0, first + " sorts after " + second);
+    }
+
+    @Test
+    void generatesStrictlyIncreasingUlids() {
+        IdGenerator generator = IdStrategy.ULID.create();
+        String previous = "";
+        for (int i = 0; i < IDS; i++) {
+            String id = text(generator.next());
+            assertEquals(26, id.length());
+            assertTrue(id.compareTo(previous) > 0, id + " does not sort after " + previous);
+            previous = id;
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(IdStrategy.class)
+    void generatesUniqueIdsAcrossThreads(IdStrategy strategy) throws Exception {
+        IdGenerator generator = strategy.create();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<String>>> batches = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                batches.add(executor.submit(() -> {
+                    List<String> ids = new ArrayList<>(IDS);
+                    for (int i = 0; i < IDS; i++) {
+                        ids.add(text(generator.next()));
+                    }
+                    return ids;
+                }));
+            }
+            Set<String> unique = new HashSet<>();
+            for (Future<List<String>> batch : batches) {
+                unique.addAll(batch.get());
+            }
+            assertEquals(4 * IDS, unique.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(IdStrategy.class)
+    void roundTripsBetweenTextAndBinary(IdStrategy strategy) {
+        IdGenerator generator = strategy.create();
+        byte[] text = generator.next();
+        byte[] binary = generator.toBinary(text);
+
+        assertEquals(IdGenerator.BINARY_BYTES, binary.length);
+        assertArrayEquals(binary, strategy.binary(text));
+        assertEquals(text(text), strategy.text(binary, 0));
+        assertEquals(IdGenerator.BINARY_BYTES, generator.nextBinary().length);
+        assertTrue(text.length <= IdGenerator.MAX_TEXT_BYTES);
+    }
+
+    @Test
+    void acceptsLowercaseUlids() {
+        byte[] upper = IdStrategy.ULID.create().next();
+        byte[] lower = text(upper).toLowerCase().getBytes(StandardCharsets.US_ASCII);
+
+        assertArrayEquals(IdStrategy.ULID.binary(upper), IdStrategy.ULID.binary(lower));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "01HZX3J5Q8M9K2N4P6R7S8T9V", "81HZX3J5Q8M9K2N4P6R7S8T9V0", "01HZX3J5Q8M9K2N4P6R7S8T9VU",
+            "0b3c5a0e-6f0d-4c1b-9f5e-1d2a3b4c5d6e"})
+    void rejectsMalformedUlids(String id) {
+        assertThrows(IllegalArgumentException.class, () -> IdStrategy.ULID.binary(bytes(id)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "0b3c5a0e6f0d4c1b9f5e1d2a3b4c5d6e", "0b3c5a0e-6f0d-4c1b-9f5e-1d2a3b4c5d6g",
+            "0b3c5a0e+6f0d-4c1b-9f5e-1d2a3b4c5d6e", "01HZX3J5Q8M9K2N4P6R7S8T9V0"})
+    void rejectsMalformedUuids(String id) {
+        assertThrows(IllegalArgumentException.class, () -> IdStrategy.RANDOM.binary(bytes(id)));
+    }
+
+    @Test
+    void tellsUlidsApart() {
+        assertTrue(IdStrategy.ULID.isUlid());
+        assertFalse(IdStrategy.UUID_V7.isUlid());
+    }
+
+    private static String text(byte[] id) {
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    private static String text(UUID id) {
+        return id.toString();
+    }
+
+    private static byte[] bytes(String id) {
+        return id.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.injector.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MicrometerInjectionMetricsTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerInjectionMetrics metrics = new MicrometerInjectionMetrics(registry);
+
+    @Test
+    void countsUnconfiguredTopicsUnderOneTag() {
+        for (int i = 0; i < 10; i++) {
+            metrics.recordMissingConfig("stray." + i);
+        }
+
+        assertEquals(1, registry.find(MicrometerInjectionMetrics.MISSING_CONFIG).counters().size());
+        assertEquals(10, registry.get(MicrometerInjectionMetrics.MISSING_CONFIG)
+                .tag("topic", MicrometerInjectionMetrics.UNCONFIGURED_TOPIC).counter().count());
+    }
+
+    @Test
+    void tagsConfiguredTopics() {
+        metrics.recordInjection("orders", 1_000, 42);
+        metrics.recordValidationFailure("orders");
+
+        assertEquals(1, registry.get(MicrometerInjectionMetrics.INJECTION_TIMER).tag("topic", "orders").timer().count());
+        assertEquals(42, registry.get(MicrometerInjectionMetrics.HEADER_BYTES).tag("topic", "orders").summary().totalAmount());
+        assertEquals(1, registry.get(MicrometerInjectionMetrics.VALIDATION_FAILURES).tag("topic", "orders").counter().count());
+    }
+
+    @Test
+    void sharesOneTagPastTheTopicLimit() {
+        for (int i = 0; i < MicrometerInjectionMetrics.MAX_TOPICS + 5; i++) {
+            metrics.recordResolutionFailure("orders." + i);
+        }
+
+        assertEquals(MicrometerInjectionMetrics.MAX_TOPICS + 1,
+                registry.find(MicrometerInjectionMetrics.RESOLUTION_FAILURES).counters().size());
+        assertEquals(5, registry.get(MicrometerInjectionMetrics.RESOLUTION_FAILURES)
+                .tag("topic", MicrometerInjectionMetrics.OTHER_TOPICS).counter().count());
+        assertNull(registry.find(MicrometerInjectionMetrics.RESOLUTION_FAILURES)
+                .tag("topic", "orders." + MicrometerInjectionMetrics.MAX_TOPICS).counter());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.injector.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopicRouterTest {
+    private final TopicRouter<String> router = new TopicRouter<>(Map.of(
+            "orders.eu.created", "exact",
+            "orders.{region}.created", "region",
+            "orders.priority.{event}", "priority",
+            "{tenant}.audit", "audit"));
+
+    @Test
+    void prefersExactChannels() {
+        assertEquals("exact", router.route("orders.eu.created"));
+        assertEquals("region", router.route("orders.us.created"));
+    }
+
+    @Test
+    void prefersLiteralSegmentsOverParameters() {
+        assertEquals("priority", router.route("orders.priority.created"));
+        assertEquals("priority", router.route("orders.priority.shipped"));
+    }
+
+    @Test
+    void backtracksWhenTheLiteralBranchDeadEnds() {
+        TopicRouter<String> router = new TopicRouter<>(Map.of(
+                "orders.priority.shipped", "exact",
+                "orders.priority.{event}.v2", "versioned",
+                "orders.{region}.created", "region"));
+
+        assertEquals("region", router.route("orders.priority.created"));
+        assertEquals("versioned", router.route("orders.priority.created.v2"));
+    }
+
+    @Test
+    void matchesWholeNonEmptySegmentsOnly() {
+        assertEquals("audit", router.route("acme.audit"));
+        assertNull(router.route(".audit"));
+        assertNull(router.route("acme.eu.audit"));
+        assertNull(router.route("orders.us.created.v2"));
+        assertNull(router.route("orders.created"));
+    }
+
+    @Test
+    void rejectsOverlappingPatterns() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new TopicRouter<>(Map.of(
+                "orders.{region}.created", "a",
+                "orders.{country}.created", "b")));
+        assertTrue(e.getMessage().contains("overlaps"), e.getMessage());
+    }
+
+    @Test
+    void rejectsPartialSegmentParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new TopicRouter<>(Map.of("orders-{region}", "a")));
+        assertThrows(IllegalArgumentException.class, () -> new TopicRouter<>(Map.of("orders.{a}{b}", "a")));
+    }
+
+    @Test
+    void boundsTheTopicCache() {
+        for (int i = 0; i < TopicRouter.MAX_CACHED_TOPICS + 100; i++) {
+            router.route("tenant-" + i + ".audit");
+        }
+
+        assertEquals(TopicRouter.MAX_CACHED_TOPICS, router.cachedTopics());
+        assertEquals("audit", router.route("tenant-" + (TopicRouter.MAX_CACHED_TOPICS + 50) + ".audit"));
+        assertNull(router.route("unknown-" + TopicRouter.MAX_CACHED_TOPICS));
+    }
+
+    @Test
+    void skipsTheCacheWithoutPatterns() {
+        TopicRouter<String> router = new TopicRouter<>(Map.of("orders", "orders"));
+
+        assertEquals("orders", router.route("orders"));
+        assertNull(router.route("payments"));
+        assertEquals(0, router.cachedTopics());
+    }
+}
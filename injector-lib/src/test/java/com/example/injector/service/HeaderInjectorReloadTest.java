@@ -0,0 +1,111 @@
+package com.example.injector.service;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HeaderInjectorReloadTest {
+    private static final int RELOADS = 32;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void publishesTheNewSpec() throws IOException {
+        HeaderInjector injector = new HeaderInjector(stream(spec("orders", "v1")), HeaderInjectorOptions.defaults());
+
+        injector.reload(stream(spec("orders", "v2")));
+
+        assertEquals("v2", version(injector, "orders"));
+    }
+
+    @Test
+    void keepsThePreviousSpecWhenTheNewOneFails() throws IOException {
+        HeaderInjector injector = new HeaderInjector(stream(spec("orders", "v1")), HeaderInjectorOptions.defaults());
+        SpecRegistry before = injector.getRegistry();
+
+        assertThrows(IOException.class, () -> injector.reload(stream("channels: [")));
+        assertThrows(IOException.class, () -> injector.reload(stream("""
+                asyncapi: 2.6.0
+                info: {title: Orders, version: '1'}
+                channels:
+                  orders:
+                    x-headers:
+                      version: ${unknown()}
+                """)));
+
+        assertSame(before, injector.getRegistry());
+        assertEquals("v1", version(injector, "orders"));
+    }
+
+    @Test
+    void concurrentReloadsEndWithTheLastFileOnDisk() throws Exception {
+        Path file = directory.resolve("spec.yaml");
+        Files.writeString(file, spec("c0", "v0"));
+        HeaderInjector injector = new HeaderInjector(stream(spec("c0", "v0")), HeaderInjectorOptions.defaults());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> reloads = new ArrayList<>();
+        try {
+            for (int i = 1; i <= RELOADS; i++) {
+                String channel = "c" + i;
+                reloads.add(executor.submit(() -> {
+                    start.await();
+                    Path temp = Files.writeString(directory.resolve(channel + ".tmp"), spec(channel, channel));
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    injector.reload(file);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> reload : reloads) {
+                reload.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String last = new HeaderInjector(stream(Files.readString(file)), HeaderInjectorOptions.defaults())
+                .getRegistry().getChannelNames().iterator().next();
+        assertEquals(Set.of(last), injector.getRegistry().getChannelNames());
+        assertEquals(last, version(injector, last));
+    }
+
+    private static String version(HeaderInjector injector, String topic) {
+        ProducerRecord<String, String> record = injector.injectHeaders(new ProducerRecord<>(topic, "{}"));
+        return new String(record.headers().lastHeader("version").value(), StandardCharsets.UTF_8);
+    }
+
+    private static String spec(String channel, String version) {
+        return """
+                asyncapi: 2.6.0
+                info: {title: Orders, version: '1'}
+                channels:
+                  %s:
+                    x-headers:
+                      version: %s
+                """.formatted(channel, version);
+    }
+
+    private static ByteArrayInputStream stream(String yaml) {
+        return new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8));
+    }
+}
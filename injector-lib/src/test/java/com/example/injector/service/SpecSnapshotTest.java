@@ -0,0 +1,199 @@
+package com.example.injector.service;
+
+import com.example.injector.consumer.HeaderReader;
+import com.example.injector.consumer.HeaderView;
+import com.example.injector.dedup.Fingerprint;
+import com.example.injector.model.AsyncApiSpec;
+import com.example.injector.model.Channel;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SpecSnapshotTest {
+    private static final String SPEC = """
+            asyncapi: 2.6.0
+            info: {title: Orders, version: '1'}
+            channels:
+              order.placed:
+                publish:
+                  message:
+                    $ref: '#/components/messages/OrderPlaced'
+                x-key: ${message.payload.orderId}
+                x-dedup-key: ${message.payload.orderId}
+                x-headers:
+                  messageType: order.placed
+                  customerId: ${message.payload.customer.id}
+                  source: ${lower(message.payload.source)}
+                x-producer:
+                  acks: all
+                  enable.idempotence: true
+              orders.{region}.shipped:
+                x-header-encoding: binary
+                x-header-packed: true
+                x-headers:
+                  messageId: ${uuid()}
+                  timestamp: ${timestamp()}
+                  region: ${message.payload.region}
+            components:
+              messages:
+                OrderPlaced:
+                  contentType: application/json
+                  payload:
+                    type: object
+                    required: [orderId, customer]
+                    properties:
+                      orderId: { type: string, maxLength: 36 }
+                      customer:
+                        type: object
+                        required: [id]
+                        properties:
+                          id: { type: integer }
+            """;
+    private static final String ORDER = "{\"orderId\":\"o-1\",\"customer\":{\"id\":42},\"source\":\"WEB\",\"region\":\"eu\"}";
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private Fingerprint checksum;
+
+    @BeforeEach
+    void writeSnapshot() throws IOException {
+        file = directory.resolve("spec.snapshot");
+        checksum = SpecSnapshot.checksum(List.of(SPEC.getBytes(StandardCharsets.UTF_8)));
+        injector(file);
+    }
+
+    @Test
+    void roundTripsTheChannelConfiguration() throws IOException {
+        SpecRegistry expected = new HeaderInjector(stream(SPEC), HeaderInjectorOptions.builder().build()).getRegistry();
+        List<AsyncApiSpec> specs = SpecSnapshot.read(file, checksum);
+
+        assertNotNull(specs);
+        assertSameChannels(expected, SpecRegistry.merge(specs));
+        assertSameChannels(expected, SpecRegistry.merge(SpecSnapshot.decode(SpecSnapshot.encode(expected))));
+    }
+
+    @Test
+    void injectsTheSameHeadersAsTheYaml() throws IOException {
+        HeaderInjector fromYaml = new HeaderInjector(stream(SPEC), HeaderInjectorOptions.builder().build());
+        HeaderInjector fromSnapshot = injector(file);
+
+        assertEquals(headers(fromYaml, "order.placed"), headers(fromSnapshot, "order.placed"));
+        assertEquals(fromYaml.producerProfile("order.placed"), fromSnapshot.producerProfile("order.placed"));
+
+        ProducerRecord<String, String> shipped = fromSnapshot.injectHeaders(new ProducerRecord<>("orders.eu.shipped", ORDER));
+        HeaderView view = HeaderReader.of(fromSnapshot.getRegistry()).read(shipped.topic(), shipped.headers());
+        assertEquals("eu", view.text("region"));
+        assertNotNull(view.uuid("messageId"));
+    }
+
+    @Test
+    void ignoresSnapshotsOfOtherYaml() {
+        Fingerprint other = SpecSnapshot.checksum(List.of((SPEC + "\n").getBytes(StandardCharsets.UTF_8)));
+        assertNull(SpecSnapshot.read(file, other));
+    }
+
+    @Test
+    void ignoresMissingSnapshots() {
+        assertNull(SpecSnapshot.read(directory.resolve("missing.snapshot"), checksum));
+    }
+
+    @Test
+    void ignoresEveryCorruptedByte() throws IOException {
+        byte[] valid = Files.readAllBytes(file);
+        for (int i = 0; i < valid.length; i++) {
+            byte[] corrupt = valid.clone();
+            corrupt[i] ^= 0x01;
+            Files.write(file, corrupt);
+            assertNull(SpecSnapshot.read(file, checksum), "bit flipped at byte " + i);
+        }
+    }
+
+    @Test
+    void ignoresEveryTruncation() throws IOException {
+        byte[] valid = Files.readAllBytes(file);
+        for (int length = 0; length < valid.length; length++) {
+            Files.write(file, Arrays.copyOf(valid, length));
+            assertNull(SpecSnapshot.read(file, checksum), "truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void ignoresOtherVersions() throws IOException {
+        byte[] snapshot = Files.readAllBytes(file);
+        snapshot[5]++;
+        Files.write(file, snapshot);
+        assertNull(SpecSnapshot.read(file, checksum));
+    }
+
+    @Test
+    void replacesACorruptSnapshotFromTheYaml() throws IOException {
+        byte[] valid = Files.readAllBytes(file);
+        byte[] corrupt = valid.clone();
+        corrupt[corrupt.length - 1] ^= 0x7F;
+        Files.write(file, corrupt);
+
+        HeaderInjector injector = injector(file);
+
+        assertEquals("o-1", injector.injectHeadersAndKey(new ProducerRecord<>("order.placed", ORDER)).key());
+        assertNotNull(SpecSnapshot.read(file, checksum));
+        assertArrayEquals(valid, Files.readAllBytes(file));
+    }
+
+    private static HeaderInjector injector(Path snapshot) throws IOException {
+        return new HeaderInjector(stream(SPEC), HeaderInjectorOptions.builder().specSnapshot(snapshot).build());
+    }
+
+    private static Map<String, String> headers(HeaderInjector injector, String topic) {
+        ProducerRecord<String, String> record = injector.injectHeadersAndKey(new ProducerRecord<>(topic, ORDER));
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("key", record.key());
+        for (Header header : record.headers()) {
+            headers.put(header.key(), new String(header.value(), StandardCharsets.UTF_8));
+        }
+        return headers;
+    }
+
+    private static void assertSameChannels(SpecRegistry expected, SpecRegistry actual) {
+        assertEquals(expected.getChannelNames(), actual.getChannelNames());
+        for (String name : expected.getChannelNames()) {
+            Channel want = expected.getChannels().get(name);
+            Channel got = actual.getChannels().get(name);
+            assertEquals(want.getXHeaders(), got.getXHeaders(), name);
+            assertEquals(List.copyOf(want.getXHeaders().keySet()), List.copyOf(got.getXHeaders().keySet()), name);
+            assertEquals(want.getXKey(), got.getXKey(), name);
+            assertEquals(want.getXDedupKey(), got.getXDedupKey(), name);
+            assertEquals(want.getXHeaderEncoding(), got.getXHeaderEncoding(), name);
+            assertEquals(want.getXHeaderPacked(), got.getXHeaderPacked(), name);
+            assertEquals(want.getXProducer(), got.getXProducer(), name);
+            assertEquals(expected.contentTypeOf(name), actual.contentTypeOf(name), name);
+            assertEquals(payload(expected, name), payload(actual, name), name);
+        }
+    }
+
+    private static Object payload(SpecRegistry registry, String channel) {
+        return registry.messageOf(channel) == null ? null : registry.messageOf(channel).getPayload();
+    }
+
+    private static ByteArrayInputStream stream(String yaml) {
+        return new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8));
+    }
+}
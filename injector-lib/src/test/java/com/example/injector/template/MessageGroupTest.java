@@ -0,0 +1,132 @@
+package com.example.injector.template;
+
+import com.example.injector.id.IdGenerator;
+import com.example.injector.service.HeaderInjector;
+import com.example.injector.service.HeaderInjectorOptions;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MessageGroupTest {
+    private static final String SPEC = """
+            asyncapi: 2.6.0
+            info: {title: Orders, version: '1'}
+            channels:
+              orders:
+                x-headers:
+                  messageId: ${messageId()}
+                  correlationId: ${correlationId()}
+                  causationId: ${causationId()}
+                  timestamp: ${timestamp()}
+              payments:
+                x-headers:
+                  messageId: ${messageId()}
+                  correlationId: ${correlationId()}
+                  causationId: ${causationId()}
+                  timestamp: ${timestamp()}
+            """;
+    private static final String CORRELATION_ID = "0b3c5a0e-6f0d-4c1b-9f5e-1d2a3b4c5d6e";
+
+    private final AtomicInteger generated = new AtomicInteger();
+    private final IdGenerator ids = () -> text("id-" + generated.incrementAndGet());
+
+    @Test
+    void chainsFromTheFirstMessage() {
+        MessageGroup group = new MessageGroup(42L, null, null);
+        MessageContext first = message(group);
+        MessageContext second = message(group);
+        MessageContext third = message(group);
+
+        assertEquals("id-1", text(first.correlationId(ids)));
+        assertEquals("id-1", text(first.causationId(ids)));
+        group.advance(first, ids);
+        assertEquals("id-1", text(second.correlationId(ids)));
+        assertEquals("id-1", text(second.causationId(ids)));
+        group.advance(second, ids);
+        assertEquals("id-1", text(third.correlationId(ids)));
+        assertEquals("id-2", text(third.causationId(ids)));
+        assertEquals("id-3", text(third.messageId(ids)));
+    }
+
+    @Test
+    void startsFromTheGivenIds() {
+        MessageGroup group = new MessageGroup(42L, text("request"), text("cause"));
+        MessageContext first = message(group);
+
+        assertEquals("request", text(first.correlationId(ids)));
+        assertEquals("cause", text(first.causationId(ids)));
+        group.advance(first, ids);
+
+        MessageContext second = message(group);
+        assertEquals("request", text(second.correlationId(ids)));
+        assertEquals("id-1", text(second.causationId(ids)));
+    }
+
+    @Test
+    void sharesTheGroupTimestamp() {
+        MessageGroup group = new MessageGroup(42L, null, null);
+
+        assertEquals(42L, message(group).timestamp(() -> 1L));
+        assertEquals(7L, message(null).timestamp(() -> 7L));
+    }
+
+    @Test
+    void injectsAChainAcrossTopicsWithOneTimestamp() throws IOException {
+        HeaderInjector injector = new HeaderInjector(stream(), HeaderInjectorOptions.defaults());
+        List<ProducerRecord<String, String>> records = injector.injectGroup(List.of(
+                new ProducerRecord<>("orders", "{}"),
+                new ProducerRecord<>("payments", "{}"),
+                new ProducerRecord<>("orders", "{}")), CORRELATION_ID, null);
+
+        assertEquals(3, records.size());
+        String previous = CORRELATION_ID;
+        for (ProducerRecord<String, String> record : records) {
+            assertEquals(CORRELATION_ID, header(record, "correlationId"));
+            assertEquals(previous, header(record, "causationId"));
+            assertNotEquals(previous, header(record, "messageId"));
+            assertEquals(header(records.get(0), "timestamp"), header(record, "timestamp"));
+            assertEquals(records.get(0).timestamp(), record.timestamp());
+            previous = header(record, "messageId");
+        }
+        assertEquals(Long.parseLong(header(records.get(0), "timestamp")), records.get(0).timestamp());
+    }
+
+    @Test
+    void rejectsCorrelationIdsOfAnotherShape() throws IOException {
+        HeaderInjector injector = new HeaderInjector(stream(), HeaderInjectorOptions.defaults());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> injector.injectGroup(List.of(new ProducerRecord<>("orders", "{}")), "checkout-42", null));
+    }
+
+    private static MessageContext message(MessageGroup group) {
+        MessageContext context = new MessageContext(0);
+        context.setGroup(group);
+        return context;
+    }
+
+    private static String header(ProducerRecord<String, String> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] text(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static ByteArrayInputStream stream() {
+        return new ByteArrayInputStream(SPEC.getBytes(StandardCharsets.UTF_8));
+    }
+}
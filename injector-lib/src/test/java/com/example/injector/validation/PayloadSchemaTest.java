@@ -0,0 +1,137 @@
+package com.example.injector.validation;
+
+import com.example.injector.model.Payload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PayloadSchemaTest {
+    private static final String ORDER_SCHEMA = """
+            type: object
+            required: [orderId, customer]
+            properties:
+              orderId: { type: string }
+              quantity: { type: integer }
+              price: { type: number }
+              gift: { type: boolean }
+              tags: { type: array }
+              note: { maxLength: 140 }
+              customer:
+                type: object
+                required: [id]
+                properties:
+                  id: { type: integer }
+                  address:
+                    type: object
+                    required: [country]
+            """;
+
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory());
+
+    @Test
+    void compilesOnlyWhatCanBeChecked() throws IOException {
+        PayloadSchema schema = schema(ORDER_SCHEMA);
+
+        assertEquals("", schema.path());
+        assertEquals(SchemaType.OBJECT, schema.type());
+        assertEquals(List.of("orderId", "customer"), schema.required());
+        assertEquals(List.of("orderId", "quantity", "price", "gift", "tags", "customer"), List.copyOf(schema.properties().keySet()));
+        PayloadSchema address = schema.properties().get("customer").properties().get("address");
+        assertEquals("customer.address", address.path());
+        assertEquals("customer.address.country", address.path("country"));
+        assertNull(schema("properties: { note: { maxLength: 10 } }"));
+    }
+
+    @Test
+    void rejectsUnknownTypes() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> schema("properties: { id: { type: uuid } }"));
+        assertEquals("Unknown schema type uuid for id", e.getMessage());
+    }
+
+    @Test
+    void acceptsValidMaps() throws IOException {
+        PayloadSchema schema = schema(ORDER_SCHEMA);
+        Map<String, Object> order = order();
+        order.put("quantity", new BigInteger("123456789012345678901234567890"));
+        order.put("price", 12);
+        order.put("tags", List.of("a"));
+        order.put("unknown", new Object());
+
+        assertDoesNotThrow(() -> schema.validate(order));
+    }
+
+    @Test
+    void reportsMissingRequiredProperties() throws IOException {
+        Map<String, Object> order = order();
+        order.remove("customer");
+
+        PayloadValidationException e = assertThrows(PayloadValidationException.class, () -> schema(ORDER_SCHEMA).validate(order));
+        assertEquals("customer", e.getPath());
+        assertEquals("is required", e.getReason());
+    }
+
+    @Test
+    void tracksRequiredPropertiesPerObject() throws IOException {
+        Map<String, Object> customer = new HashMap<>(Map.of("orderId", "o-1"));
+        Map<String, Object> order = new HashMap<>(Map.of("customer", customer, "id", 7));
+
+        PayloadValidationException e = assertThrows(PayloadValidationException.class, () -> schema(ORDER_SCHEMA).validate(order));
+        assertEquals("orderId", e.getPath());
+
+        order.put("orderId", "o-1");
+        e = assertThrows(PayloadValidationException.class, () -> schema(ORDER_SCHEMA).validate(order));
+        assertEquals("customer.id", e.getPath());
+    }
+
+    @Test
+    void treatsNullAsAType() throws IOException {
+        Map<String, Object> order = order();
+        order.put("orderId", null);
+
+        PayloadValidationException e = assertThrows(PayloadValidationException.class, () -> schema(ORDER_SCHEMA).validate(order));
+        assertEquals("orderId", e.getPath());
+        assertEquals("must be string, got null", e.getReason());
+    }
+
+    @Test
+    void reportsTypeMismatches() throws IOException {
+        Map<String, Object> order = order();
+        order.put("quantity", 1.5);
+
+        PayloadValidationException e = assertThrows(PayloadValidationException.class, () -> schema(ORDER_SCHEMA).validate(order));
+        assertEquals("quantity", e.getPath());
+        assertEquals("must be integer, got number", e.getReason());
+        assertEquals("Invalid payload for topic orders: quantity must be integer, got number", e.forTopic("orders").getMessage());
+    }
+
+    @Test
+    void checksThePayloadItself() throws IOException {
+        PayloadValidationException e = assertThrows(PayloadValidationException.class,
+                () -> schema(ORDER_SCHEMA).validate(List.of()));
+        assertEquals("", e.getPath());
+        assertEquals("Invalid payload: payload must be object, got array", e.getMessage());
+    }
+
+    private static PayloadSchema schema(String yaml) throws IOException {
+        return PayloadSchema.compile(YAML.readValue(yaml, Payload.class));
+    }
+
+    private static Map<String, Object> order() {
+        Map<String, Object> order = new HashMap<>();
+        order.put("orderId", "o-1");
+        order.put("customer", new HashMap<>(Map.of("id", 42)));
+        return order;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.producer.config;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -65,6 +67,7 @@ public class KafkaConfig {
      * Configure producer factory for non-local profiles
      */
     @Bean
+    @Primary
     @Profile("!local")
     public ProducerFactory<String, String> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -80,7 +83,8 @@ public class KafkaConfig {
     @Bean
     @Primary
     @Profile("local")
-    public KafkaTemplate<String, String> localKafkaTemplate(ProducerFactory<String, String> localProducerFactory) {
+    public KafkaTemplate<String, String> localKafkaTemplate(
+            @Qualifier("localProducerFactory") ProducerFactory<String, String> localProducerFactory) {
         return new KafkaTemplate<>(localProducerFactory);
     }
     
@@ -88,8 +92,51 @@ public class KafkaConfig {
      * Configure Kafka template for non-local profiles
      */
     @Bean
+    @Primary
     @Profile("!local")
     public KafkaTemplate<String, String> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    /**
+     * Producer factory for binary payloads (Avro, Protobuf, pre-serialized JSON),
+     * used in every profile
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> bytesProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> bytesKafkaTemplate(ProducerFactory<String, byte[]> bytesProducerFactory) {
+        return new KafkaTemplate<>(bytesProducerFactory);
+    }
+
+    /**
+     * Transactional producer factory for message groups, used in every profile.
+     * Producers are cached and reused after each commit, so a transactional id
+     * is only initialized with the broker once per producer. The prefix must be
+     * unique per application instance.
+     */
+    @Bean
+    public ProducerFactory<String, String> transactionalProducerFactory(
+            @Value("${kafka.transaction-id-prefix:producer-app-tx-}") String transactionIdPrefix) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(configProps);
+        factory.setTransactionIdPrefix(transactionIdPrefix);
+        return factory;
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> transactionalKafkaTemplate(
+            @Qualifier("transactionalProducerFactory") ProducerFactory<String, String> transactionalProducerFactory) {
+        return new KafkaTemplate<>(transactionalProducerFactory);
+    }
 }
@@ -0,0 +1,31 @@
+package com.example.producer.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Logs which thread model serves HTTP requests. Spring Boot applies
+ * {@code spring.threads.virtual.enabled} only on a Java 21+ runtime; the build
+ * targets Java 17, so as shipped requests run on platform threads.
+ */
+@Configuration
+@Slf4j
+public class ThreadingConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @PostConstruct
+    public void logThreadingMode() {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreads && javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled is set but the JVM is Java {}; requests stay on platform threads",
+                    javaVersion);
+        } else {
+            log.info("Serving requests on {} threads", virtualThreads ? "virtual" : "platform");
+        }
+    }
+}
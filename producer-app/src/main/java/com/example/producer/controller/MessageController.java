@@ -1,14 +1,25 @@
 package com.example.producer.controller;
 
+import com.example.injector.validation.PayloadValidationException;
+import com.example.producer.model.GroupMessage;
+import com.example.producer.model.PublishResult;
 import com.example.producer.service.MessageService;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
@@ -32,4 +43,49 @@ public class MessageController {
         model.addAttribute("message", "Message published successfully!");
         return "index";
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/publish/batch")
+    @ResponseBody
+    public CompletableFuture<List<PublishResult>> publishBatch(@RequestParam String topic,
+                                                               @RequestBody List<JsonNode> payloads) {
+        List<String> messages = payloads.stream().map(JsonNode::toString).toList();
+        return messageService.publishBatch(topic, messages);
+    }
+
+    /**
+     * Publishes the messages atomically; see {@link MessageService#publishTransaction}.
+     */
+    @PostMapping("/publish/transaction")
+    @ResponseBody
+    public List<PublishResult> publishTransaction(@RequestParam(required = false) String correlationId,
+                                                  @RequestBody List<GroupMessage> messages) {
+        return messageService.publishTransaction(messages, correlationId);
+    }
+
+    @PostMapping(value = "/publish/binary", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @ResponseBody
+    public CompletableFuture<PublishResult> publishBinary(@RequestParam String topic,
+                                                          @RequestBody byte[] payload) {
+        return messageService.publishBytesAsync(topic, payload);
+    }
+
+    @ExceptionHandler(PayloadValidationException.class)
+    public ResponseEntity<String> invalidPayload(PayloadValidationException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * A correlation id that is not an ID, see {@code HeaderInjector#injectGroup}.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> invalidArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @PostMapping("/spec/reload")
+    @ResponseBody
+    public String reloadSpec() throws Exception {
+        messageService.reloadSpec();
+        return "Spec reloaded";
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.producer.loadtest;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Written as JSON by {@link LoadTestRunner}; fields keep a fixed order so
+ * reports from two builds diff cleanly.
+ */
+@Value
+public class LoadTestReport {
+    int version;
+    String startedAt;
+    long durationSeconds;
+    long warmupSeconds;
+    long seed;
+    List<LoadTestResult> results;
+}
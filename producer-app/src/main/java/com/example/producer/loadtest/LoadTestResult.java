@@ -0,0 +1,25 @@
+package com.example.producer.loadtest;
+
+import lombok.Value;
+
+/**
+ * One topic at one rate and concurrency. Latencies are microseconds from the
+ * scheduled send time to the broker acknowledgement, so a stalled producer
+ * shows up in the tail instead of lowering the rate.
+ */
+@Value
+public class LoadTestResult {
+    String topic;
+    /** Messages per second, 0 for as fast as possible. */
+    int targetRate;
+    int concurrency;
+    long sent;
+    long acknowledged;
+    long errors;
+    double throughput;
+    long p50Micros;
+    long p99Micros;
+    long p999Micros;
+    long maxMicros;
+    double meanMicros;
+}
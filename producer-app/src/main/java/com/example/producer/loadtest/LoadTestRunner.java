@@ -0,0 +1,187 @@
+package com.example.producer.loadtest;
+
+import com.example.injector.service.SpecRegistry;
+import com.example.producer.model.PublishResult;
+import com.example.producer.service.MessageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes synthetic payloads through {@link MessageService} against the
+ * embedded broker of the {@code loadtest} profile. Every topic is driven at
+ * each combination of {@code loadtest.rates} and {@code loadtest.concurrency},
+ * first for the warmup and then for the measured duration. The results are
+ * written as JSON to {@code loadtest.report}, then the application exits.
+ */
+@Component
+@Profile("loadtest")
+@Slf4j
+public class LoadTestRunner implements ApplicationRunner {
+    private static final int REPORT_VERSION = 1;
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final MessageService messageService;
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper objectMapper;
+
+    @Value("${loadtest.topics:}")
+    private List<String> topics;
+    @Value("${loadtest.rates:1000,10000}")
+    private int[] rates;
+    @Value("${loadtest.concurrency:1,4}")
+    private int[] concurrencyLevels;
+    @Value("${loadtest.duration:10s}")
+    private Duration duration;
+    @Value("${loadtest.warmup:3s}")
+    private Duration warmup;
+    @Value("${loadtest.payloads:1000}")
+    private int payloadCount;
+    @Value("${loadtest.seed:42}")
+    private long seed;
+    @Value("${loadtest.report:build/reports/loadtest/report.json}")
+    private Path reportFile;
+    @Value("${loadtest.exit:true}")
+    private boolean exitWhenDone;
+
+    public LoadTestRunner(MessageService messageService, ConfigurableApplicationContext context, ObjectMapper objectMapper) {
+        this.messageService = messageService;
+        this.context = context;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        SpecRegistry registry = messageService.getRegistry();
+        String startedAt = Instant.now().toString();
+        List<LoadTestResult> results = new ArrayList<>();
+        for (String channel : topics.isEmpty() ? messageService.getAvailableTopics() : topics) {
+            String contentType = registry.getChannels().containsKey(channel) ? registry.contentTypeOf(channel) : "application/json";
+            if (!contentType.contains("json")) {
+                log.warn("Skipping {}: synthetic payloads are JSON but the channel expects {}", channel, contentType);
+                continue;
+            }
+            List<String> payloads = SyntheticPayloads.generate(registry.messageOf(channel), payloadCount, seed, objectMapper);
+            String topic = channel.replaceAll("\\{[^}]*}", "loadtest");
+            for (int concurrency : concurrencyLevels) {
+                for (int rate : rates) {
+                    drive(topic, payloads, rate, concurrency, warmup);
+                    LoadTestResult result = drive(topic, payloads, rate, concurrency, duration);
+                    log.info("{} rate={} concurrency={}: {} msg/s, p50={}us p99={}us p999={}us, {} errors",
+                            topic, rate, concurrency, Math.round(result.getThroughput()), result.getP50Micros(),
+                            result.getP99Micros(), result.getP999Micros(), result.getErrors());
+                    results.add(result);
+                }
+            }
+        }
+        LoadTestReport report = new LoadTestReport(REPORT_VERSION, startedAt, duration.toSeconds(), warmup.toSeconds(),
+                seed, results);
+        write(report);
+        if (exitWhenDone) {
+            long errors = results.stream().mapToLong(LoadTestResult::getErrors).sum();
+            System.exit(SpringApplication.exit(context, () -> errors == 0 ? 0 : 1));
+        }
+    }
+
+    /**
+     * Each of {@code concurrency} threads sends its share of {@code rate} on a
+     * fixed schedule (or back to back for rate 0) and does not wait for the
+     * acknowledgement, so a slow broker cannot slow the offered load down. A
+     * publish that throws instead of failing its future counts as an error too.
+     */
+    private LoadTestResult drive(String topic, List<String> payloads, int rate, int concurrency, Duration length)
+            throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder sent = new LongAdder();
+        LongAdder acknowledged = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long interval = rate == 0 ? 0 : TimeUnit.SECONDS.toNanos(concurrency) / rate;
+        long start = System.nanoTime();
+        long deadline = start + length.toNanos();
+        ExecutorService senders = Executors.newFixedThreadPool(concurrency);
+        for (int thread = 0; thread < concurrency; thread++) {
+            int first = thread;
+            long offset = interval * thread / concurrency;
+            senders.execute(() -> {
+                int next = first;
+                long scheduled = start + offset;
+                while (true) {
+                    long now = System.nanoTime();
+                    if (interval > 0) {
+                        if (scheduled >= deadline) {
+                            return;
+                        }
+                        if (scheduled > now) {
+                            LockSupport.parkNanos(scheduled - now);
+                        }
+                    } else if (now >= deadline) {
+                        return;
+                    } else {
+                        scheduled = now;
+                    }
+                    long sentAt = scheduled;
+                    sent.increment();
+                    CompletableFuture<PublishResult> published;
+                    try {
+                        published = messageService.publishMessageAsync(topic, payloads.get(next % payloads.size()));
+                    } catch (RuntimeException e) {
+                        // counted like an asynchronous failure, the thread keeps its schedule
+                        published = CompletableFuture.failedFuture(e);
+                    }
+                    published.whenComplete((result, failure) -> {
+                        if (failure != null) {
+                            errors.increment();
+                        } else {
+                            latencies.recordValue(Math.max(0, (System.nanoTime() - sentAt) / 1_000));
+                            acknowledged.increment();
+                        }
+                    });
+                    next += concurrency;
+                    scheduled += interval;
+                }
+            });
+        }
+        senders.shutdown();
+        senders.awaitTermination(length.toSeconds() + DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        while (acknowledged.sum() + errors.sum() < sent.sum() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        long unfinished = sent.sum() - acknowledged.sum() - errors.sum();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new LoadTestResult(topic, rate, concurrency, sent.sum(), acknowledged.sum(), errors.sum() + unfinished,
+                acknowledged.sum() / seconds,
+                latencies.getValueAtPercentile(50), latencies.getValueAtPercentile(99),
+                latencies.getValueAtPercentile(99.9), latencies.getMaxValue(), latencies.getMean());
+    }
+
+    private void write(LoadTestReport report) throws IOException {
+        Path file = reportFile.toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        log.info("Load test report written to {}", file);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.producer.loadtest;
+
+import com.example.injector.model.MessageDefinition;
+import com.example.injector.model.Property;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Random JSON payloads shaped by a message's {@code payload.properties} schema.
+ * The same seed gives the same payloads, so runs are comparable across builds.
+ */
+final class SyntheticPayloads {
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int DEFAULT_STRING_LENGTH = 16;
+
+    private SyntheticPayloads() {
+    }
+
+    static List<String> generate(MessageDefinition message, int count, long seed, ObjectMapper objectMapper) {
+        Map<String, Property> properties = message == null || message.getPayload() == null
+                ? Map.of() : message.getPayload().getProperties();
+        Random random = new Random(seed);
+        List<String> payloads = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                payloads.add(objectMapper.writeValueAsString(object(properties, random)));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize synthetic payload", e);
+        }
+        return payloads;
+    }
+
+    private static Map<String, Object> object(Map<String, Property> properties, Random random) {
+        Map<String, Object> object = new LinkedHashMap<>();
+        if (properties != null) {
+            properties.forEach((name, property) -> object.put(name, value(property, random)));
+        }
+        return object;
+    }
+
+    private static Object value(Property property, Random random) {
+        String type = property.getType() == null ? "string" : property.getType();
+        switch (type) {
+            case "object":
+                return object(property.getProperties(), random);
+            case "integer":
+                return (long) random.nextInt(1_000_000);
+            case "number":
+                return random.nextInt(100_000) / 100.0;
+            case "boolean":
+                return random.nextBoolean();
+            case "array":
+                return List.of();
+            default:
+                return string(property, random);
+        }
+    }
+
+    private static String string(Property property, Random random) {
+        if ("uuid".equals(property.getFormat())) {
+            return new UUID(random.nextLong(), random.nextLong()).toString();
+        }
+        int length = property.getMaxLength() == null
+                ? DEFAULT_STRING_LENGTH : Math.min(DEFAULT_STRING_LENGTH, property.getMaxLength());
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            value.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        if ("email".equals(property.getFormat())) {
+            return value.append("@example.com").toString();
+        }
+        return value.toString();
+    }
+}
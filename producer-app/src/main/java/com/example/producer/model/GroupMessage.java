@@ -0,0 +1,17 @@
+package com.example.producer.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One message of a transactional group: the topic and its JSON payload.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMessage {
+    private String topic;
+    private JsonNode payload;
+}
@@ -0,0 +1,14 @@
+package com.example.producer.model;
+
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+public class PublishResult {
+    String topic;
+    String key;
+    int partition;
+    long offset;
+    Map<String, String> headers;
+}
@@ -1,72 +1,338 @@
 package com.example.producer.service;
 
+import com.example.injector.clock.TimestampMode;
+import com.example.injector.consumer.HeaderReader;
+import com.example.injector.consumer.HeaderView;
+import com.example.injector.dedup.HeaderCache;
+import com.example.injector.id.IdStrategy;
+import com.example.injector.metrics.InjectionMetrics;
+import com.example.injector.metrics.MicrometerInjectionMetrics;
 import com.example.injector.service.HeaderInjector;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.injector.service.HeaderInjectorOptions;
+import com.example.injector.service.SpecRegistry;
+import com.example.injector.service.SpecWatcher;
+import com.example.injector.validation.PayloadValidationException;
+import com.example.producer.model.GroupMessage;
+import com.example.producer.model.PublishResult;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
-import org.apache.kafka.common.header.Headers;
-import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 public class MessageService {
+    static final String PUBLISH_LATENCY = "producer.publish.latency";
+    static final String MESSAGES_PUBLISHED = "producer.messages.published";
+    static final String TRANSACTION_LATENCY = "producer.transaction.latency";
 
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> bytesKafkaTemplate;
+    private final KafkaTemplate<String, String> transactionalKafkaTemplate;
+    private final ProducerPool producerPool;
+    private final MeterRegistry meterRegistry;
     private final String specPath;
-    private final ResourceLoader resourceLoader;
+    private final ResourcePatternResolver resourceResolver;
+    private final HeaderInjectorOptions injectorOptions;
+    private final boolean watchSpec;
+    private final List<SpecWatcher> specWatchers = new ArrayList<>();
     private HeaderInjector headerInjector;
-    private final ObjectMapper objectMapper;
+    private volatile HeaderReader headerReader;
 
     public MessageService(KafkaTemplate<String, String> kafkaTemplate,
+                        KafkaTemplate<String, byte[]> bytesKafkaTemplate,
+                        @Qualifier("transactionalKafkaTemplate") KafkaTemplate<String, String> transactionalKafkaTemplate,
+                        ProducerPool producerPool,
                         @Value("${asyncapi.spec.path}") String specPath,
-                        ResourceLoader resourceLoader) {
+                        @Value("${header-injector.id-strategy:RANDOM}") IdStrategy idStrategy,
+                        @Value("${header-injector.timestamp-mode:SYSTEM}") TimestampMode timestampMode,
+                        @Value("${asyncapi.spec.watch:false}") boolean watchSpec,
+                        @Value("${header-injector.metrics.enabled:true}") boolean metricsEnabled,
+                        @Value("${header-injector.generated.enabled:true}") boolean generatedInjectors,
+                        @Value("${header-injector.dedup.enabled:false}") boolean dedupEnabled,
+                        @Value("${header-injector.dedup.max-entries:100000}") int dedupMaxEntries,
+                        @Value("${header-injector.dedup.ttl:5m}") Duration dedupTtl,
+                        @Value("${header-injector.snapshot.path:}") String snapshotPath,
+                        @Value("${header-injector.validation.enabled:false}") boolean validatePayloads,
+                        ResourceLoader resourceLoader,
+                        MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.bytesKafkaTemplate = bytesKafkaTemplate;
+        this.transactionalKafkaTemplate = transactionalKafkaTemplate;
+        this.producerPool = producerPool;
+        this.meterRegistry = meterRegistry;
         this.specPath = specPath;
-        this.resourceLoader = resourceLoader;
-        this.objectMapper = new ObjectMapper();
+        this.watchSpec = watchSpec;
+        this.resourceResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        HeaderCache headerCache = null;
+        if (dedupEnabled) {
+            headerCache = new HeaderCache(dedupMaxEntries, dedupTtl);
+            MicrometerInjectionMetrics.monitor(meterRegistry, headerCache);
+        }
+        this.injectorOptions = HeaderInjectorOptions.builder()
+                .idStrategy(idStrategy)
+                .timestampMode(timestampMode)
+                .metrics(metricsEnabled ? new MicrometerInjectionMetrics(meterRegistry) : InjectionMetrics.NOOP)
+                .useGeneratedInjectors(generatedInjectors)
+                .headerCache(headerCache)
+                .specSnapshot(snapshotPath.isBlank() ? null : Path.of(snapshotPath))
+                .validatePayloads(validatePayloads)
+                .build();
     }
 
     @PostConstruct
     public void init() throws Exception {
-        Resource resource = resourceLoader.getResource(specPath);
-        try (InputStream inputStream = resource.getInputStream()) {
-            this.headerInjector = new HeaderInjector(inputStream);
+        Resource[] resources = resourceResolver.getResources(specPath);
+        List<InputStream> inputStreams = open(resources);
+        try {
+            this.headerInjector = new HeaderInjector(inputStreams, injectorOptions);
+        } finally {
+            close(inputStreams);
+        }
+        log.info("Loaded {} AsyncAPI spec(s) from {}", resources.length, specPath);
+        if (watchSpec) {
+            watch(resources);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        for (SpecWatcher specWatcher : specWatchers) {
+            specWatcher.close();
         }
     }
 
+    /**
+     * Re-reads every spec matching {@code asyncapi.spec.path}. The running version
+     * is kept if the new set fails to load.
+     */
+    public void reloadSpec() throws Exception {
+        List<InputStream> inputStreams = open(resourceResolver.getResources(specPath));
+        try {
+            headerInjector.reload(inputStreams);
+        } finally {
+            close(inputStreams);
+        }
+    }
+
+    public SpecRegistry getRegistry() {
+        return headerInjector.getRegistry();
+    }
+
     public List<String> getAvailableTopics() {
-        return List.of("user.created");
+        return headerInjector.getRegistry().getChannelNames().stream().sorted().toList();
     }
 
+    /**
+     * Waits for the acknowledgement. Runtime exceptions the publish failed with,
+     * e.g. a {@link PayloadValidationException}, are rethrown as they are.
+     */
     public Map<String, String> publishMessage(String topic, String payload) {
         try {
-            Map<String, Object> payloadMap = objectMapper.readValue(payload, Map.class);
-            Headers headers = new RecordHeaders();
-            
-            headerInjector.injectHeaders(topic, headers, payloadMap);
-            
-            CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(topic, payload);
-            future.get(); // Wait for the message to be sent
-            
-            Map<String, String> headerMap = new HashMap<>();
-            headers.forEach(header -> headerMap.put(header.key(), new String(header.value())));
-            return headerMap;
-            
+            return publishMessageAsync(topic, payload).get().getHeaders();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing to " + topic, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (!(cause instanceof PayloadValidationException)) {
+                log.error("Error publishing message", cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("Failed to publish message", cause);
+        }
+    }
+
+    /**
+     * Injects headers and hands the record to the producer without waiting for
+     * the broker. The record is keyed by the channel's {@code x-key} (or
+     * {@code aggregateId} header) so one aggregate's messages stay ordered on one
+     * partition. With {@code header-injector.validation.enabled} the future fails
+     * with a {@link PayloadValidationException} if the payload does not match the
+     * message schema, before anything is sent. Topics whose channel has an
+     * {@code x-producer} block go through
+     * the pooled producer for that profile. The future completes once the record
+     * is acknowledged.
+     */
+    public CompletableFuture<PublishResult> publishMessageAsync(String topic, String payload) {
+        return send(kafkaTemplate, new ProducerRecord<>(topic, payload));
+    }
+
+    /**
+     * Publishes an already serialized payload as is. Header fields are read with
+     * the extractor for the channel's content type, so Avro or Protobuf payloads
+     * work once a matching extractor is on the classpath.
+     */
+    public CompletableFuture<PublishResult> publishBytesAsync(String topic, byte[] payload) {
+        return send(bytesKafkaTemplate, new ProducerRecord<>(topic, payload));
+    }
+
+    private <V> CompletableFuture<PublishResult> send(KafkaTemplate<String, V> template, ProducerRecord<String, V> record) {
+        try {
+            String topic = record.topic();
+            ProducerRecord<String, V> keyed = headerInjector.injectHeadersAndKey(record);
+            Map<String, String> headers = headerMap(keyed);
+            KafkaTemplate<String, V> producer = producerPool.template(template, headerInjector.producerProfile(topic));
+            long start = System.nanoTime();
+            return producer.send(keyed).thenApply(result -> {
+                meterRegistry.timer(PUBLISH_LATENCY, "topic", topic).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                meterRegistry.counter(MESSAGES_PUBLISHED, "topic", topic).increment();
+                RecordMetadata metadata = result.getRecordMetadata();
+                return new PublishResult(topic, keyed.key(), metadata.partition(), metadata.offset(), headers);
+            });
         } catch (Exception e) {
-            log.error("Error publishing message", e);
-            throw new RuntimeException("Failed to publish message", e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Sends all payloads back to back so the producer can fill its batches
+     * ({@code linger.ms}, {@code batch.size}) and completes when every record
+     * has been acknowledged, with results in input order.
+     */
+    public CompletableFuture<List<PublishResult>> publishBatch(String topic, List<String> payloads) {
+        List<CompletableFuture<PublishResult>> futures = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            futures.add(publishMessageAsync(topic, payload));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Publishes the messages in one Kafka transaction, so consumers reading
+     * committed records see all of them or none. Headers are injected for the
+     * whole group before the transaction begins: every message carries the same
+     * timestamp, {@code ${correlationId()}} is the given id (or the first
+     * message's id) and {@code ${causationId()}} is the previous message's id.
+     * A payload that fails validation aborts the group before anything is sent.
+     * {@code x-producer} profiles don't apply, all records go through the one
+     * transactional producer. The whole transaction, from the first send to the
+     * commit, is timed once in {@value #TRANSACTION_LATENCY}. Results are in
+     * input order.
+     *
+     * @param correlationId correlation id of the group, an ID like {@code ${messageId()}}, or null to start a new one
+     */
+    public List<PublishResult> publishTransaction(List<GroupMessage> messages, String correlationId) {
+        List<ProducerRecord<String, String>> records = new ArrayList<>(messages.size());
+        for (GroupMessage message : messages) {
+            records.add(new ProducerRecord<>(message.getTopic(), message.getPayload().toString()));
+        }
+        List<ProducerRecord<String, String>> keyed = headerInjector.injectGroup(records, correlationId, null);
+        long start = System.nanoTime();
+        List<CompletableFuture<SendResult<String, String>>> futures = transactionalKafkaTemplate.executeInTransaction(operations -> {
+            List<CompletableFuture<SendResult<String, String>>> sent = new ArrayList<>(keyed.size());
+            for (ProducerRecord<String, String> record : keyed) {
+                sent.add(operations.send(record));
+            }
+            return sent;
+        });
+        meterRegistry.timer(TRANSACTION_LATENCY).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        List<PublishResult> results = new ArrayList<>(keyed.size());
+        for (int i = 0; i < keyed.size(); i++) {
+            ProducerRecord<String, String> record = keyed.get(i);
+            RecordMetadata metadata = futures.get(i).join().getRecordMetadata();
+            meterRegistry.counter(MESSAGES_PUBLISHED, "topic", record.topic()).increment();
+            results.add(new PublishResult(record.topic(), record.key(), metadata.partition(), metadata.offset(), headerMap(record)));
+        }
+        return results;
+    }
+
+    /**
+     * The injected headers as text, decoded like a consumer would: binary IDs
+     * and timestamps are formatted and packed headers are unpacked into their
+     * declared keys.
+     */
+    private Map<String, String> headerMap(ProducerRecord<String, ?> record) {
+        Map<String, String> headerMap = new LinkedHashMap<>();
+        HeaderView view = headerReader().read(record.topic(), record.headers());
+        if (view == null) {
+            return headerMap;
+        }
+        List<String> keys = view.channel().keys();
+        for (int i = 0; i < keys.size(); i++) {
+            if (view.contains(i)) {
+                headerMap.put(keys.get(i), String.valueOf(view.value(i)));
+            }
+        }
+        return headerMap;
+    }
+
+    /**
+     * Rebuilt whenever the injector serves a different registry, e.g. after a reload.
+     */
+    private HeaderReader headerReader() {
+        SpecRegistry registry = headerInjector.getRegistry();
+        HeaderReader reader = headerReader;
+        if (reader == null || reader.getRegistry() != registry) {
+            reader = HeaderReader.of(registry, injectorOptions);
+            headerReader = reader;
+        }
+        return reader;
+    }
+
+    private void watch(Resource[] resources) throws IOException {
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Resource resource : resources) {
+            if (resource.isFile()) {
+                directories.add(resource.getFile().toPath().toAbsolutePath().getParent());
+            }
+        }
+        if (directories.isEmpty()) {
+            log.warn("asyncapi.spec.watch is enabled but {} does not resolve to files, hot reload disabled", specPath);
+        }
+        for (Path directory : directories) {
+            specWatchers.add(new SpecWatcher(directory, this::reloadSpec));
+        }
+    }
+
+    private static List<InputStream> open(Resource[] resources) throws IOException {
+        List<InputStream> inputStreams = new ArrayList<>(resources.length);
+        try {
+            for (Resource resource : resources) {
+                inputStreams.add(resource.getInputStream());
+            }
+        } catch (IOException e) {
+            close(inputStreams);
+            throw e;
+        }
+        return inputStreams;
+    }
+
+    private static void close(List<InputStream> inputStreams) {
+        for (InputStream inputStream : inputStreams) {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                log.debug("Failed to close spec stream", e);
+            }
         }
     }
-} 
\ No newline at end of file
+}
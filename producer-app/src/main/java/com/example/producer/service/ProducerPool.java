@@ -0,0 +1,52 @@
+package com.example.producer.service;
+
+import com.example.injector.producer.ProducerProfile;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One producer per distinct {@code x-producer} profile and payload type. Each
+ * pooled template copies the base template's producer factory with the
+ * profile's settings on top, so topics sharing a profile share its batches.
+ */
+@Component
+@Slf4j
+public class ProducerPool {
+    private final Map<PoolKey, KafkaTemplate<String, ?>> templates = new ConcurrentHashMap<>();
+
+    /**
+     * @return {@code base} itself for the default profile, else the pooled template for the profile
+     */
+    @SuppressWarnings("unchecked")
+    public <V> KafkaTemplate<String, V> template(KafkaTemplate<String, V> base, ProducerProfile profile) {
+        if (profile.isDefault()) {
+            return base;
+        }
+        return (KafkaTemplate<String, V>) templates.computeIfAbsent(new PoolKey(base, profile), key -> {
+            log.info("Creating producer for profile {}", profile);
+            return new KafkaTemplate<>(base.getProducerFactory(), profile.toConfig());
+        });
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        templates.values().forEach(KafkaTemplate::destroy);
+        templates.clear();
+    }
+
+    @Value
+    private static class PoolKey {
+        KafkaTemplate<String, ?> base;
+        ProducerProfile profile;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.producer.loadtest;
+
+import com.example.injector.clock.TimestampMode;
+import com.example.injector.id.IdStrategy;
+import com.example.producer.model.PublishResult;
+import com.example.producer.service.MessageService;
+import com.example.producer.service.ProducerPool;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestRunnerTest {
+    private static final String TOPIC = "user.created";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void countsPublishesThatThrowAndKeepsSending() throws Exception {
+        MessageService service = new FailingEveryOtherPublish();
+        service.init();
+        ObjectMapper objectMapper = new ObjectMapper();
+        LoadTestRunner runner = new LoadTestRunner(service, null, objectMapper);
+        Path report = directory.resolve("report.json");
+        ReflectionTestUtils.setField(runner, "topics", List.of(TOPIC));
+        ReflectionTestUtils.setField(runner, "rates", new int[]{500});
+        ReflectionTestUtils.setField(runner, "concurrencyLevels", new int[]{1});
+        ReflectionTestUtils.setField(runner, "duration", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(runner, "warmup", Duration.ZERO);
+        ReflectionTestUtils.setField(runner, "payloadCount", 10);
+        ReflectionTestUtils.setField(runner, "seed", 42L);
+        ReflectionTestUtils.setField(runner, "reportFile", report);
+        ReflectionTestUtils.setField(runner, "exitWhenDone", false);
+
+        runner.run(null);
+
+        JsonNode result = objectMapper.readTree(report.toFile()).get("results").get(0);
+        long sent = result.get("sent").asLong();
+        assertTrue(sent > 10, "sent " + sent);
+        assertEquals(sent, result.get("acknowledged").asLong() + result.get("errors").asLong());
+        assertEquals(sent / 2, result.get("errors").asLong());
+    }
+
+    /**
+     * Throws from every second {@code publishMessageAsync} call instead of failing its future.
+     */
+    private static final class FailingEveryOtherPublish extends MessageService {
+        private final AtomicLong calls = new AtomicLong();
+
+        FailingEveryOtherPublish() {
+            super(template(new StringSerializer()), template(new ByteArraySerializer()), template(new StringSerializer()),
+                    new ProducerPool(), "classpath*:asyncapi-specs/*.yaml", IdStrategy.RANDOM, TimestampMode.SYSTEM,
+                    false, false, true, false, 100, Duration.ofMinutes(5), "", false, new DefaultResourceLoader(),
+                    new SimpleMeterRegistry());
+        }
+
+        @Override
+        public CompletableFuture<PublishResult> publishMessageAsync(String topic, String payload) {
+            if (calls.incrementAndGet() % 2 == 0) {
+                throw new IllegalStateException("publish rejected");
+            }
+            return super.publishMessageAsync(topic, payload);
+        }
+
+        private static <V> KafkaTemplate<String, V> template(Serializer<V> values) {
+            MockProducer<String, V> producer = new MockProducer<>(true, new StringSerializer(), values) {
+                @Override
+                public void close(Duration timeout) {
+                    // shared by every send of the template
+                }
+            };
+            return new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.producer.service;
+
+import com.example.injector.clock.TimestampMode;
+import com.example.injector.id.IdStrategy;
+import com.example.injector.validation.PayloadValidationException;
+import com.example.producer.model.PublishResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.kafka.core.KafkaProducerException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageServiceTest {
+    private static final String TOPIC = "user.created";
+    private static final String PAYLOAD = "{\"userId\":\"u-1\",\"email\":\"a@example.com\",\"name\":\"A\"}";
+
+    private MockProducer<String, String> producer;
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    void returnsTheInjectedHeaders() throws Exception {
+        MessageService service = service(true, false);
+
+        Map<String, String> headers = service.publishMessage(TOPIC, PAYLOAD);
+
+        assertEquals("u-1", headers.get("aggregateId"));
+        assertEquals("user.created", headers.get("messageType"));
+        assertEquals(headers.get("messageId"), UUID.fromString(headers.get("messageId")).toString());
+        assertEquals(1, producer.history().size());
+    }
+
+    @Test
+    void rethrowsValidationFailuresAsTheyAre() throws Exception {
+        MessageService service = service(true, true);
+
+        PayloadValidationException e = assertThrows(PayloadValidationException.class,
+                () -> service.publishMessage(TOPIC, "{\"userId\":7}"));
+        assertEquals("userId", e.getPath());
+        assertEquals(0, producer.history().size());
+    }
+
+    @Test
+    void rethrowsSendFailuresAsTheyAre() throws Exception {
+        MessageService service = service(false, false);
+        KafkaException failure = new KafkaException("broker down");
+        CompletableFuture<Void> broker = CompletableFuture.runAsync(() -> {
+            while (!producer.errorNext(failure)) {
+                Thread.onSpinWait();
+            }
+        });
+
+        KafkaProducerException e = assertThrows(KafkaProducerException.class, () -> service.publishMessage(TOPIC, PAYLOAD));
+        assertSame(failure, e.getCause());
+        broker.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void keepsTheInterruptFlag() throws Exception {
+        MessageService service = service(false, false);
+
+        Thread.currentThread().interrupt();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.publishMessage(TOPIC, PAYLOAD));
+
+        assertTrue(Thread.currentThread().isInterrupted());
+        assertTrue(e.getCause() instanceof InterruptedException, String.valueOf(e.getCause()));
+    }
+
+    @Test
+    void returnsBatchResultsInInputOrder() throws Exception {
+        MessageService service = service(true, false);
+        List<String> payloads = List.of("{\"userId\":\"u-0\"}", "{\"userId\":\"u-1\"}", "{\"userId\":\"u-2\"}");
+
+        List<PublishResult> results = service.publishBatch(TOPIC, payloads).get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("u-" + i, results.get(i).getHeaders().get("aggregateId"));
+        }
+    }
+
+    private MessageService service(boolean autoComplete, boolean validatePayloads) throws Exception {
+        producer = new MockProducer<>(autoComplete, new StringSerializer(), new StringSerializer()) {
+            @Override
+            public void close(Duration timeout) {
+                // KafkaTemplate closes its producer after every send, the test keeps reading history()
+            }
+        };
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        KafkaTemplate<String, byte[]> bytesTemplate = new KafkaTemplate<>(new MockProducerFactory<>(
+                () -> new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer())));
+        MessageService service = new MessageService(template, bytesTemplate, template, new ProducerPool(),
+                "classpath*:asyncapi-specs/*.yaml", IdStrategy.RANDOM, TimestampMode.SYSTEM, false, false, true,
+                false, 100, Duration.ofMinutes(5), "", validatePayloads, new DefaultResourceLoader(),
+                new SimpleMeterRegistry());
+        service.init();
+        return service;
+    }
+}
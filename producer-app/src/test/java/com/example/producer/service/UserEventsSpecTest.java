@@ -0,0 +1,99 @@
+package com.example.producer.service;
+
+import com.example.injector.codec.HeaderBudget;
+import com.example.injector.consumer.ChannelHeaders;
+import com.example.injector.consumer.HeaderReader;
+import com.example.injector.consumer.HeaderType;
+import com.example.injector.service.HeaderInjector;
+import com.example.injector.service.HeaderInjectorOptions;
+import com.example.injector.service.SpecRegistry;
+import com.example.injector.template.TemplateCompiler;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The shipped {@code user.created} channel switched to compact binary headers
+ * under a header budget.
+ */
+class UserEventsSpecTest {
+    private static final String TOPIC = "user.created";
+    /** Keys take 64 bytes; three IDs at 16, the userId at 36, the literal type at 12 and the timestamp at 8. */
+    private static final int MAX_BYTES = 168;
+
+    @Test
+    void fitsABudgetWithBinaryTraceIds() throws IOException {
+        HeaderInjector injector = new HeaderInjector(binary(MAX_BYTES), HeaderInjectorOptions.defaults());
+        SpecRegistry registry = injector.getRegistry();
+
+        assertEquals(MAX_BYTES, HeaderBudget.maxBytes(registry.getChannels().get(TOPIC), registry.messageOf(TOPIC),
+                new TemplateCompiler()));
+        ChannelHeaders channel = HeaderReader.of(registry).channel(TOPIC);
+        for (String key : List.of("messageId", "correlationId", "causationId")) {
+            assertEquals(HeaderType.ID, channel.type(channel.indexOf(key)), key);
+        }
+        assertEquals(HeaderType.TIMESTAMP, channel.type(channel.indexOf("timestamp")));
+        assertEquals(HeaderType.TEXT, channel.type(channel.indexOf("aggregateId")));
+    }
+
+    @Test
+    void rejectsATighterBudget() {
+        IOException e = assertThrows(IOException.class,
+                () -> new HeaderInjector(binary(MAX_BYTES - 1), HeaderInjectorOptions.defaults()));
+        assertTrue(e.getMessage().contains("up to " + MAX_BYTES + " bytes"), e.getMessage());
+    }
+
+    @Test
+    void writesTraceIdsAsRawBytes() throws IOException {
+        HeaderInjector injector = new HeaderInjector(binary(MAX_BYTES), HeaderInjectorOptions.defaults());
+
+        List<ProducerRecord<String, String>> group = injector.injectGroup(List.of(
+                new ProducerRecord<>(TOPIC, "{\"userId\":\"1\"}"), new ProducerRecord<>(TOPIC, "{\"userId\":\"2\"}")));
+        byte[] firstId = value(group.get(0), "messageId");
+        assertEquals(16, firstId.length);
+        assertArrayEquals(firstId, value(group.get(0), "correlationId"));
+        assertArrayEquals(firstId, value(group.get(0), "causationId"));
+        assertArrayEquals(firstId, value(group.get(1), "correlationId"));
+        assertArrayEquals(firstId, value(group.get(1), "causationId"));
+        assertEquals(16, value(group.get(1), "messageId").length);
+        assertEquals(8, value(group.get(1), "timestamp").length);
+    }
+
+    @Test
+    void rejectsCorrelationIdsThatAreNotIds() throws IOException {
+        HeaderInjector injector = new HeaderInjector(binary(MAX_BYTES), HeaderInjectorOptions.defaults());
+        List<ProducerRecord<String, String>> records = List.of(new ProducerRecord<>(TOPIC, "{\"userId\":\"1\"}"));
+
+        assertThrows(IllegalArgumentException.class, () -> injector.injectGroup(records, "checkout-42", null));
+        String correlationId = "0b3c5a0e-6f0d-4c1b-9f5e-1d2a3b4c5d6e";
+        ProducerRecord<String, String> record = injector.injectGroup(records, correlationId, null).get(0);
+        assertEquals(correlationId, HeaderReader.of(injector.getRegistry()).read(TOPIC, record.headers())
+                .uuid("correlationId").toString());
+    }
+
+    private static byte[] value(ProducerRecord<?, ?> record, String key) {
+        return record.headers().lastHeader(key).value();
+    }
+
+    private static InputStream binary(int budget) throws IOException {
+        String spec;
+        try (InputStream shipped = UserEventsSpecTest.class.getResourceAsStream("/asyncapi-specs/user-events.yaml")) {
+            spec = new String(shipped.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String compact = spec
+                .replace("    x-headers:\n", "    x-header-encoding: binary\n    x-header-budget: " + budget + "\n    x-headers:\n")
+                .replace("          userId:\n            type: string\n",
+                        "          userId:\n            type: string\n            format: uuid\n");
+        return new ByteArrayInputStream(compact.getBytes(StandardCharsets.UTF_8));
+    }
+}